@@ -0,0 +1,12 @@
+package com.loop.api.common.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Notifies other nodes that a local cache entry is stale. A {@code null} key means the whole cache.
+ */
+@FunctionalInterface
+public interface CacheEvictionPublisher {
+
+	void publish(String cacheName, @Nullable String key);
+}
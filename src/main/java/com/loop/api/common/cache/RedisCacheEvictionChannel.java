@@ -0,0 +1,77 @@
+package com.loop.api.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache evictions over Redis pub/sub so every node drops its L1 copy.
+ * <p>
+ * Messages have the form {@code nodeId<TAB>cacheName[<TAB>key]}; a missing key clears the whole cache. Messages
+ * published by this node are ignored on receipt because the local eviction has already happened.
+ * <p>
+ * Other in-memory structures that must follow changes made on other nodes can share the channel under a name of their
+ * own: {@link #onMessage} routes keys published under that name to a handler instead of the cache manager.
+ */
+@Slf4j
+public class RedisCacheEvictionChannel implements CacheEvictionPublisher {
+
+	private static final char SEPARATOR = '\t';
+
+	private final StringRedisTemplate redisTemplate;
+	private final ChannelTopic topic;
+	private final String nodeId;
+	private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+	public RedisCacheEvictionChannel(StringRedisTemplate redisTemplate, String channel, String nodeId) {
+		this.redisTemplate = redisTemplate;
+		this.topic = new ChannelTopic(channel);
+		this.nodeId = nodeId;
+	}
+
+	public ChannelTopic getTopic() {
+		return topic;
+	}
+
+	@Override
+	public void publish(String cacheName, @Nullable String key) {
+		StringBuilder message = new StringBuilder(nodeId).append(SEPARATOR).append(cacheName);
+		if (key != null) {
+			message.append(SEPARATOR).append(key);
+		}
+		try {
+			redisTemplate.convertAndSend(topic.getTopic(), message.toString());
+		} catch (RuntimeException ex) {
+			log.warn("Failed to broadcast eviction of '{}' from cache '{}'", key, cacheName, ex);
+		}
+	}
+
+	/**
+	 * Hands every key other nodes {@link #publish} under {@code name} to {@code handler}.
+	 */
+	public void onMessage(String name, Consumer<String> handler) {
+		handlers.put(name, handler);
+	}
+
+	public MessageListener listener(TwoLevelCacheManager cacheManager) {
+		return (message, pattern) -> {
+			String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+			if (parts.length < 2 || parts[0].equals(nodeId)) {
+				return;
+			}
+			Consumer<String> handler = handlers.get(parts[1]);
+			if (handler == null) {
+				cacheManager.evictLocal(parts[1], parts.length == 3 ? parts[2] : null);
+			} else if (parts.length == 3) {
+				handler.accept(parts[2]);
+			}
+		};
+	}
+}
@@ -0,0 +1,202 @@
+package com.loop.api.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache backed by an in-process Caffeine cache (L1) in front of an optional shared cache (L2).
+ * <p>
+ * Reads try L1, then L2, and promote L2 hits into L1. Writes go to both levels. Evictions clear both levels and are
+ * published so that other nodes drop their L1 copy. L2 failures are logged and treated as misses so that an
+ * unavailable Redis degrades to L1 plus the database instead of failing requests.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+	private final String name;
+	private final Cache<Object, Object> local;
+	@Nullable
+	private final org.springframework.cache.Cache remote;
+	@Nullable
+	private final CacheEvictionPublisher evictionPublisher;
+
+	private final LongAdder remoteHits = new LongAdder();
+	private final LongAdder remoteMisses = new LongAdder();
+	private final LongAdder puts = new LongAdder();
+
+	public TwoLevelCache(String name, Cache<Object, Object> local,
+						 @Nullable org.springframework.cache.Cache remote,
+						 @Nullable CacheEvictionPublisher evictionPublisher) {
+		super(false);
+		this.name = name;
+		this.local = local;
+		this.remote = remote;
+		this.evictionPublisher = evictionPublisher;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return local;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Object localKey = localKey(key);
+		Object value = local.getIfPresent(localKey);
+		if (value != null) {
+			return value;
+		}
+
+		value = lookupRemote(key);
+		if (value != null) {
+			local.put(localKey, value);
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return (T) local.get(localKey(key), k -> {
+			Object value = lookupRemote(key);
+			if (value != null) {
+				return value;
+			}
+			try {
+				value = valueLoader.call();
+			} catch (Exception ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			putRemote(key, value);
+			puts.increment();
+			return value;
+		});
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		if (value == null) {
+			evict(key);
+			return;
+		}
+		putRemote(key, value);
+		local.put(localKey(key), value);
+		puts.increment();
+	}
+
+	@Override
+	public void evict(Object key) {
+		evictIfPresent(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = false;
+		if (remote != null) {
+			try {
+				present = remote.evictIfPresent(key);
+			} catch (RuntimeException ex) {
+				log.warn("Failed to evict key '{}' from shared cache '{}'", key, name, ex);
+			}
+		}
+		String localKey = localKey(key);
+		present |= local.asMap().remove(localKey) != null;
+		publish(localKey);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		if (remote != null) {
+			try {
+				remote.clear();
+			} catch (RuntimeException ex) {
+				log.warn("Failed to clear shared cache '{}'", name, ex);
+			}
+		}
+		local.invalidateAll();
+		publish(null);
+	}
+
+	/**
+	 * Drops an entry from this node's L1 only. Used when another node reports an eviction.
+	 */
+	public void evictLocal(@Nullable String key) {
+		if (key == null) {
+			local.invalidateAll();
+		} else {
+			local.invalidate(key);
+		}
+	}
+
+	Cache<Object, Object> getLocalCache() {
+		return local;
+	}
+
+	boolean hasRemote() {
+		return remote != null;
+	}
+
+	long getRemoteHitCount() {
+		return remoteHits.sum();
+	}
+
+	long getRemoteMissCount() {
+		return remoteMisses.sum();
+	}
+
+	long getPutCount() {
+		return puts.sum();
+	}
+
+	@Nullable
+	private Object lookupRemote(Object key) {
+		if (remote == null) {
+			return null;
+		}
+		try {
+			ValueWrapper wrapper = remote.get(key);
+			if (wrapper != null && wrapper.get() != null) {
+				remoteHits.increment();
+				return wrapper.get();
+			}
+		} catch (RuntimeException ex) {
+			log.warn("Failed to read key '{}' from shared cache '{}'", key, name, ex);
+		}
+		remoteMisses.increment();
+		return null;
+	}
+
+	private void putRemote(Object key, Object value) {
+		if (remote == null) {
+			return;
+		}
+		try {
+			remote.put(key, value);
+		} catch (RuntimeException ex) {
+			log.warn("Failed to write key '{}' to shared cache '{}'", key, name, ex);
+		}
+	}
+
+	private void publish(@Nullable String localKey) {
+		if (evictionPublisher != null) {
+			evictionPublisher.publish(name, localKey);
+		}
+	}
+
+	// Redis stringifies keys, so L1 does the same to keep both levels and eviction messages in agreement
+	private static String localKey(Object key) {
+		return String.valueOf(key);
+	}
+}
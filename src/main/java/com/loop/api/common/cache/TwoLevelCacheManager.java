@@ -0,0 +1,62 @@
+package com.loop.api.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates a fixed set of {@link TwoLevelCache}s. Puts and evictions are deferred until the surrounding transaction
+ * commits so that a rolled back update never evicts or repopulates an entry.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+	private final Collection<String> cacheNames;
+	private final Caffeine<Object, Object> localSpec;
+	@Nullable
+	private final CacheManager remoteCacheManager;
+	@Nullable
+	private final CacheEvictionPublisher evictionPublisher;
+	private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+	public TwoLevelCacheManager(Collection<String> cacheNames,
+								Caffeine<Object, Object> localSpec,
+								@Nullable CacheManager remoteCacheManager,
+								@Nullable CacheEvictionPublisher evictionPublisher) {
+		this.cacheNames = List.copyOf(cacheNames);
+		this.localSpec = localSpec;
+		this.remoteCacheManager = remoteCacheManager;
+		this.evictionPublisher = evictionPublisher;
+		setTransactionAware(true);
+	}
+
+	@Override
+	protected Collection<? extends Cache> loadCaches() {
+		return cacheNames.stream()
+				.map(this::createCache)
+				.toList();
+	}
+
+	/**
+	 * Applies an eviction received from another node to the local level only.
+	 */
+	public void evictLocal(String cacheName, @Nullable String key) {
+		TwoLevelCache cache = twoLevelCaches.get(cacheName);
+		if (cache != null) {
+			cache.evictLocal(key);
+		}
+	}
+
+	private TwoLevelCache createCache(String name) {
+		Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+		TwoLevelCache cache = new TwoLevelCache(name, localSpec.build(), remote, evictionPublisher);
+		twoLevelCaches.put(name, cache);
+		return cache;
+	}
+}
@@ -0,0 +1,81 @@
+package com.loop.api.common.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the standard {@code cache.*} meters for a {@link TwoLevelCache}, plus {@code cache.level.gets} broken
+ * down by level ({@code l1}, {@code l2}) and result ({@code hit}, {@code miss}).
+ */
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+	public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+		super(cache, cache.getName(), tags);
+	}
+
+	@Override
+	protected Long size() {
+		TwoLevelCache cache = getCache();
+		return cache != null ? cache.getLocalCache().estimatedSize() : null;
+	}
+
+	@Override
+	protected long hitCount() {
+		TwoLevelCache cache = getCache();
+		return cache != null ? localStats(cache).hitCount() + cache.getRemoteHitCount() : 0L;
+	}
+
+	@Override
+	protected Long missCount() {
+		TwoLevelCache cache = getCache();
+		if (cache == null) {
+			return null;
+		}
+		return cache.hasRemote() ? cache.getRemoteMissCount() : localStats(cache).missCount();
+	}
+
+	@Override
+	protected Long evictionCount() {
+		TwoLevelCache cache = getCache();
+		return cache != null ? localStats(cache).evictionCount() : null;
+	}
+
+	@Override
+	protected long putCount() {
+		TwoLevelCache cache = getCache();
+		return cache != null ? cache.getPutCount() : 0L;
+	}
+
+	@Override
+	protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+		TwoLevelCache cache = getCache();
+		if (cache == null) {
+			return;
+		}
+		levelCounter(registry, cache, "l1", "hit", c -> localStats(c).hitCount());
+		levelCounter(registry, cache, "l1", "miss", c -> localStats(c).missCount());
+		if (cache.hasRemote()) {
+			levelCounter(registry, cache, "l2", "hit", TwoLevelCache::getRemoteHitCount);
+			levelCounter(registry, cache, "l2", "miss", TwoLevelCache::getRemoteMissCount);
+		}
+	}
+
+	private void levelCounter(MeterRegistry registry, TwoLevelCache cache, String level, String result,
+							  ToDoubleFunction<TwoLevelCache> count) {
+		FunctionCounter.builder("cache.level.gets", cache, count)
+				.tags(getTagsWithCacheName())
+				.tag("level", level)
+				.tag("result", result)
+				.description("The number of lookups answered by each cache level")
+				.register(registry);
+	}
+
+	private static CacheStats localStats(TwoLevelCache cache) {
+		return cache.getLocalCache().stats();
+	}
+}
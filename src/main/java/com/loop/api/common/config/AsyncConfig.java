@@ -0,0 +1,112 @@
+package com.loop.api.common.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async executors. Boot's application executor, used by @Async, is bounded here through app.async.application.*;
+ * each background workload that needs its own capacity gets a named executor. spring.task.execution.mode=force
+ * keeps Boot creating the application executor even though other executors are defined. Boot publishes
+ * {@code executor.active}, {@code executor.queued}, {@code executor.completed} and friends for every
+ * thread-pool executor, tagged by name; rejections are counted as {@code executor.rejected}.
+ */
+@Configuration
+public class AsyncConfig {
+
+	/**
+	 * Carries the caller's security context into @Async tasks. Boot applies this decorator to the application task
+	 * executor whether it runs on platform threads or, with spring.threads.virtual.enabled, on virtual threads.
+	 */
+	@Bean
+	public TaskDecorator securityContextTaskDecorator() {
+		return runnable -> DelegatingSecurityContextRunnable.create(runnable, null);
+	}
+
+	/**
+	 * Bounds the application executor used by @Async: once its threads and queue are full, @Async calls fail fast
+	 * with TaskRejectedException rather than piling up in memory. Queued tasks get to finish on shutdown.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutorCustomizer applicationTaskExecutorBounds(
+			MeterRegistry meterRegistry,
+			@Value("${app.async.application.threads:8}") int threads,
+			@Value("${app.async.application.max-threads:16}") int maxThreads,
+			@Value("${app.async.application.queue-capacity:500}") int queueCapacity,
+			@Value("${app.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+		return executor -> {
+			executor.setCorePoolSize(threads);
+			executor.setMaxPoolSize(maxThreads);
+			executor.setQueueCapacity(queueCapacity);
+			executor.setRejectedExecutionHandler(
+					counting("application", new ThreadPoolExecutor.AbortPolicy(), meterRegistry));
+			executor.setWaitForTasksToCompleteOnShutdown(true);
+			executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+		};
+	}
+
+	/**
+	 * The virtual-thread equivalent: caps concurrent @Async tasks and rejects beyond the cap.
+	 */
+	@Bean
+	public SimpleAsyncTaskExecutorCustomizer applicationVirtualTaskExecutorBounds(
+			@Value("${app.async.application.virtual-concurrency-limit:256}") int concurrencyLimit,
+			@Value("${app.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+		return executor -> {
+			executor.setConcurrencyLimit(concurrencyLimit);
+			executor.setRejectTasksWhenLimitReached(true);
+			executor.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+		};
+	}
+
+	/**
+	 * Sends outbox emails in parallel, sized to the SMTP connection pool. When it is saturated the dispatcher
+	 * thread sends the email itself, which slows claiming instead of dropping work.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor emailExecutor(MeterRegistry meterRegistry,
+												@Value("${app.async.email.threads:4}") int threads,
+												@Value("${app.async.email.queue-capacity:100}") int queueCapacity,
+												@Value("${app.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+		return boundedExecutor("email", threads, queueCapacity, shutdownTimeout,
+				counting("email", new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry));
+	}
+
+	private static ThreadPoolTaskExecutor boundedExecutor(String name, int threads, int queueCapacity,
+														  Duration shutdownTimeout,
+														  RejectedExecutionHandler rejectionHandler) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(name + "-");
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setRejectedExecutionHandler(rejectionHandler);
+		// Let queued work finish on shutdown, up to the timeout
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+		return executor;
+	}
+
+	private static RejectedExecutionHandler counting(String name, RejectedExecutionHandler delegate,
+													 MeterRegistry meterRegistry) {
+		Counter rejected = Counter.builder("executor.rejected")
+				.tag("name", name)
+				.description("Tasks rejected because the executor's threads and queue were full")
+				.register(meterRegistry);
+		return (runnable, executor) -> {
+			rejected.increment();
+			delegate.rejectedExecution(runnable, executor);
+		};
+	}
+}
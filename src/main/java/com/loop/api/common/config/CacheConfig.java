@@ -0,0 +1,91 @@
+package com.loop.api.common.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loop.api.common.cache.RedisCacheEvictionChannel;
+import com.loop.api.common.cache.TwoLevelCache;
+import com.loop.api.common.cache.TwoLevelCacheManager;
+import com.loop.api.common.cache.TwoLevelCacheMetrics;
+import com.loop.api.common.constants.CacheNames;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfig {
+
+	private static final List<String> CACHE_NAMES = List.of(CacheNames.USERS, CacheNames.USER_ACCOUNTS);
+
+	@Bean
+	public TwoLevelCacheManager cacheManager(@Value("${app.cache.local.maximum-size:10000}") long maximumSize,
+											 @Value("${app.cache.local.ttl:60s}") Duration localTtl,
+											 @Value("${app.cache.redis.enabled:true}") boolean redisEnabled,
+											 @Value("${app.cache.redis.ttl:10m}") Duration redisTtl,
+											 ObjectProvider<RedisConnectionFactory> connectionFactory,
+											 ObjectProvider<RedisCacheEvictionChannel> evictionChannel) {
+		Caffeine<Object, Object> localSpec = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(localTtl)
+				.recordStats();
+		RedisCacheManager redisCacheManager = redisEnabled
+				? redisCacheManager(connectionFactory.getObject(), redisTtl)
+				: null;
+		return new TwoLevelCacheManager(CACHE_NAMES, localSpec, redisCacheManager, evictionChannel.getIfAvailable());
+	}
+
+	@Bean
+	public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+		return TwoLevelCacheMetrics::new;
+	}
+
+	// Not a bean: a second CacheManager would make @Cacheable resolution ambiguous
+	private static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, Duration ttl) {
+		RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+				.entryTtl(ttl)
+				.disableCachingNullValues()
+				.serializeValuesWith(RedisSerializationContext.SerializationPair
+						.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+		RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+				.cacheDefaults(config)
+				.initialCacheNames(Set.copyOf(CACHE_NAMES))
+				.build();
+		cacheManager.initializeCaches();
+		return cacheManager;
+	}
+
+	@Configuration
+	@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+	static class RedisLevelConfig {
+
+		@Bean
+		public RedisCacheEvictionChannel redisCacheEvictionChannel(
+				StringRedisTemplate redisTemplate,
+				@Value("${app.cache.redis.eviction-channel:loop-api:cache-evictions}") String channel) {
+			return new RedisCacheEvictionChannel(redisTemplate, channel, UUID.randomUUID().toString());
+		}
+
+		@Bean
+		public RedisMessageListenerContainer cacheEvictionListenerContainer(RedisConnectionFactory connectionFactory,
+																			RedisCacheEvictionChannel channel,
+																			TwoLevelCacheManager cacheManager) {
+			RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+			container.setConnectionFactory(connectionFactory);
+			container.addMessageListener(channel.listener(cacheManager), channel.getTopic());
+			return container;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.loop.api.common.config;
+
+import com.loop.api.common.mail.PooledJavaMailSender;
+import com.loop.api.common.mail.SmtpSink;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+	/**
+	 * Replaces Boot's per-send JavaMailSender with one that pools SMTP connections; the spring.mail.* settings
+	 * are applied the same way Boot would.
+	 */
+	@Bean
+	public PooledJavaMailSender mailSender(MailProperties properties,
+										   MeterRegistry meterRegistry,
+										   @Value("${app.mail.pool.max-connections:4}") int maxConnections,
+										   @Value("${app.mail.pool.max-idle:30s}") Duration maxIdle,
+										   @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessages,
+										   @Value("${app.mail.pool.borrow-timeout:10s}") Duration borrowTimeout) {
+		PooledJavaMailSender sender = new PooledJavaMailSender(maxConnections, maxIdle, maxMessages, borrowTimeout);
+		sender.setHost(properties.getHost());
+		if (properties.getPort() != null) {
+			sender.setPort(properties.getPort());
+		}
+		sender.setUsername(properties.getUsername());
+		sender.setPassword(properties.getPassword());
+		sender.setProtocol(properties.getProtocol());
+		if (properties.getDefaultEncoding() != null) {
+			sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+		}
+		Properties javaMailProperties = new Properties();
+		javaMailProperties.putAll(properties.getProperties());
+		sender.setJavaMailProperties(javaMailProperties);
+
+		Gauge.builder("mail.pool.connections.active", sender, PooledJavaMailSender::getActiveConnections)
+				.register(meterRegistry);
+		Gauge.builder("mail.pool.connections.idle", sender, PooledJavaMailSender::getIdleConnections)
+				.register(meterRegistry);
+		FunctionCounter.builder("mail.pool.connections.opened", sender, PooledJavaMailSender::getOpenedConnections)
+				.register(meterRegistry);
+		return sender;
+	}
+
+	/**
+	 * Runs an in-process SMTP server that discards everything it receives; point spring.mail at it for offline runs.
+	 */
+	@Configuration
+	@ConditionalOnProperty(name = "app.mail.sink.enabled", havingValue = "true")
+	static class SinkConfig {
+
+		@Bean
+		public SmtpSink smtpSink(@Value("${app.mail.sink.port:2525}") int port, MeterRegistry meterRegistry) {
+			SmtpSink sink = new SmtpSink(port);
+			FunctionCounter.builder("mail.sink.received", sink, SmtpSink::getReceived)
+					.description("Messages accepted and discarded by the in-process SMTP sink")
+					.register(meterRegistry);
+			return sink;
+		}
+	}
+}
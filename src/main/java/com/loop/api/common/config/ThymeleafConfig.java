@@ -1,5 +1,6 @@
 package com.loop.api.common.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -8,6 +9,9 @@ import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 @Configuration
 public class ThymeleafConfig {
 
+	@Value("${app.email.template-cache:true}")
+	private boolean templateCache;
+
 	@Bean
 	public SpringTemplateEngine thymeleafTemplateEngine() {
 		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
@@ -15,6 +19,10 @@ public class ThymeleafConfig {
 		return templateEngine;
 	}
 
+	/**
+	 * Parsed templates are cached for the life of the application; set app.email.template-cache to false to pick
+	 * up template edits without a restart during development.
+	 */
 	@Bean
 	public ClassLoaderTemplateResolver emailTemplateResolver() {
 		ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
@@ -22,7 +30,8 @@ public class ThymeleafConfig {
 		resolver.setSuffix(".html");
 		resolver.setTemplateMode("HTML");
 		resolver.setCharacterEncoding("UTF-8");
-		resolver.setCacheable(false);
+		resolver.setCacheable(templateCache);
+		resolver.setCacheTTLMs(null);
 		return resolver;
 	}
 }
@@ -10,6 +10,7 @@ public final class ApiRoutes {
 	public static final class Admin {
 		public static final String BASE = "/admin";
 		public static final String USERS = BASE + "/users";
+		public static final String USERS_EXPORT = USERS + "/export";
 	}
 
 	public static final class Auth {
@@ -0,0 +1,13 @@
+package com.loop.api.common.constants;
+
+public final class CacheNames {
+
+	// UserResponse by user id
+	public static final String USERS = "users";
+
+	// UserAccount, without the password hash, by user id
+	public static final String USER_ACCOUNTS = "userAccounts";
+
+	private CacheNames() {
+	}
+}
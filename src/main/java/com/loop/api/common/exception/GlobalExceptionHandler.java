@@ -1,6 +1,7 @@
 package com.loop.api.common.exception;
 
 import com.loop.api.common.dto.response.StandardResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,10 +35,12 @@ public class GlobalExceptionHandler {
 	}
 
 	@ExceptionHandler(UserAlreadyExistsException.class)
-	public ResponseEntity<StandardResponse<Void>> handleUserAlreadyExistsException(UserAlreadyExistsException ex) {
+	public ResponseEntity<StandardResponse<Map<String, String>>> handleUserAlreadyExistsException(
+			UserAlreadyExistsException ex) {
+		Map<String, String> conflicts = ex.getConflicts().isEmpty() ? null : ex.getConflicts();
 		return ResponseEntity
 				.status(HttpStatus.CONFLICT)
-				.body(StandardResponse.error(HttpStatus.CONFLICT, ex.getMessage()));
+				.body(StandardResponse.error(HttpStatus.CONFLICT, ex.getMessage(), conflicts));
 	}
 
 	@ExceptionHandler(InvalidCredentialsException.class)
@@ -82,6 +85,14 @@ public class GlobalExceptionHandler {
 				.body(StandardResponse.error(HttpStatus.BAD_REQUEST, ex.getMessage()));
 	}
 
+	@ExceptionHandler(ServiceBusyException.class)
+	public ResponseEntity<StandardResponse<Void>> handleServiceBusy(ServiceBusyException ex) {
+		return ResponseEntity
+				.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+				.body(StandardResponse.error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<StandardResponse<Void>> handleGlobalException(Exception ex) {
 		return ResponseEntity
@@ -1,7 +1,24 @@
 package com.loop.api.common.exception;
 
+import java.util.Map;
+
 public class UserAlreadyExistsException extends RuntimeException {
+    private final Map<String, String> conflicts;
+
     public UserAlreadyExistsException(String message) {
         super(message);
+        this.conflicts = Map.of();
+    }
+
+    /**
+     * One entry per conflicting field, from field name to message. The messages, joined, are the exception message.
+     */
+    public UserAlreadyExistsException(Map<String, String> conflicts) {
+        super(String.join(" ", conflicts.values()));
+        this.conflicts = conflicts;
+    }
+
+    public Map<String, String> getConflicts() {
+        return conflicts;
     }
-}
\ No newline at end of file
+}
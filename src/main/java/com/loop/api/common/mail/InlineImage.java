@@ -0,0 +1,46 @@
+package com.loop.api.common.mail;
+
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * An image embedded in emails by Content-ID. The resource is read and base64-encoded once; each message gets a
+ * fresh body part over the same encoded bytes, since a part can only belong to one message.
+ */
+public final class InlineImage {
+
+	private final String contentId;
+	private final String contentType;
+	private final byte[] encoded;
+
+	private InlineImage(String contentId, String contentType, byte[] encoded) {
+		this.contentId = contentId;
+		this.contentType = contentType;
+		this.encoded = encoded;
+	}
+
+	public static InlineImage load(Resource resource, String contentId, String contentType) {
+		try (var in = resource.getInputStream()) {
+			return new InlineImage(contentId, contentType, Base64.getMimeEncoder().encode(in.readAllBytes()));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to load inline image " + resource, e);
+		}
+	}
+
+	public MimeBodyPart toBodyPart() throws MessagingException {
+		PreencodedMimeBodyPart part = new PreencodedMimeBodyPart("base64");
+		part.setDataHandler(new DataHandler(new ByteArrayDataSource(encoded, contentType)));
+		part.setDisposition(Part.INLINE);
+		part.setContentID("<" + contentId + ">");
+		return part;
+	}
+}
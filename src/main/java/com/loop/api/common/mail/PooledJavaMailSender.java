@@ -0,0 +1,199 @@
+package com.loop.api.common.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link JavaMailSenderImpl} that keeps authenticated SMTP connections open between sends instead of paying for
+ * connect, STARTTLS and AUTH on every message.
+ * <p>
+ * At most {@code maxConnections} connections are in use at once; further senders wait up to {@code borrowTimeout}.
+ * Idle connections are reused most-recently-used first, checked with a NOOP before reuse, and closed once idle for
+ * longer than {@code maxIdle} or after {@code maxMessagesPerConnection} messages. A connection that fails while
+ * sending is discarded.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+	private final int maxConnections;
+	private final Duration maxIdle;
+	private final int maxMessagesPerConnection;
+	private final Duration borrowTimeout;
+	private final Semaphore permits;
+	private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+	private final AtomicLong opened = new AtomicLong();
+
+	public PooledJavaMailSender(int maxConnections, Duration maxIdle, int maxMessagesPerConnection,
+								Duration borrowTimeout) {
+		this.maxConnections = maxConnections;
+		this.maxIdle = maxIdle;
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+		this.borrowTimeout = borrowTimeout;
+		this.permits = new Semaphore(maxConnections, true);
+	}
+
+	@Override
+	protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+		Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+		PooledConnection connection = null;
+
+		try {
+			for (int i = 0; i < mimeMessages.length; i++) {
+				if (connection == null || connection.sent >= maxMessagesPerConnection) {
+					if (connection != null) {
+						release(connection, true);
+						connection = null;
+					}
+					try {
+						connection = acquire();
+					} catch (AuthenticationFailedException ex) {
+						throw new MailAuthenticationException(ex);
+					} catch (MailException ex) {
+						throw ex;
+					} catch (Exception ex) {
+						for (int j = i; j < mimeMessages.length; j++) {
+							failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+						}
+						throw new MailSendException("Mail server connection failed", ex, failedMessages);
+					}
+				}
+
+				MimeMessage mimeMessage = mimeMessages[i];
+				try {
+					if (mimeMessage.getSentDate() == null) {
+						mimeMessage.setSentDate(new Date());
+					}
+					String messageId = mimeMessage.getMessageID();
+					mimeMessage.saveChanges();
+					if (messageId != null) {
+						mimeMessage.setHeader("Message-ID", messageId);
+					}
+					Address[] addresses = mimeMessage.getAllRecipients();
+					connection.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+					connection.sent++;
+				} catch (Exception ex) {
+					failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessage, ex);
+					if (!connection.transport.isConnected()) {
+						release(connection, false);
+						connection = null;
+					}
+				}
+			}
+		} finally {
+			if (connection != null) {
+				release(connection, true);
+			}
+		}
+
+		if (!failedMessages.isEmpty()) {
+			throw new MailSendException(failedMessages);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		PooledConnection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			close(connection);
+		}
+	}
+
+	public int getActiveConnections() {
+		return maxConnections - permits.availablePermits();
+	}
+
+	public int getIdleConnections() {
+		return idle.size();
+	}
+
+	public long getOpenedConnections() {
+		return opened.get();
+	}
+
+	private PooledConnection acquire() throws MessagingException {
+		try {
+			if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new MailSendException("No SMTP connection available within " + borrowTimeout);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+		}
+
+		try {
+			evictIdle();
+			PooledConnection connection;
+			while ((connection = idle.pollFirst()) != null) {
+				// For SMTP, isConnected() issues a NOOP, so a connection the server has dropped is caught here
+				if (connection.transport.isConnected()) {
+					return connection;
+				}
+				close(connection);
+			}
+			Transport transport = connectTransport();
+			opened.incrementAndGet();
+			return new PooledConnection(transport);
+		} catch (MessagingException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private void release(PooledConnection connection, boolean reusable) {
+		if (reusable && connection.sent < maxMessagesPerConnection) {
+			connection.lastUsed = System.nanoTime();
+			idle.offerFirst(connection);
+		} else {
+			close(connection);
+		}
+		permits.release();
+	}
+
+	private void evictIdle() {
+		long now = System.nanoTime();
+		PooledConnection oldest;
+		while ((oldest = idle.peekLast()) != null && now - oldest.lastUsed >= maxIdle.toNanos()) {
+			if (idle.removeLastOccurrence(oldest)) {
+				close(oldest);
+			}
+		}
+	}
+
+	private void close(PooledConnection connection) {
+		try {
+			connection.transport.close();
+		} catch (MessagingException e) {
+			log.debug("Failed to close SMTP connection", e);
+		}
+	}
+
+	private static final class PooledConnection {
+		private final Transport transport;
+		private int sent;
+		private long lastUsed = System.nanoTime();
+
+		private PooledConnection(Transport transport) {
+			this.transport = transport;
+		}
+	}
+}
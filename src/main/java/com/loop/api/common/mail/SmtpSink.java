@@ -0,0 +1,115 @@
+package com.loop.api.common.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A minimal SMTP server on the loopback interface that accepts every message and throws it away, so the mail path
+ * can be exercised end to end without a real relay. It speaks just enough SMTP for JavaMail: no AUTH, no STARTTLS.
+ * Each connection is served on its own virtual thread.
+ */
+@Slf4j
+public class SmtpSink implements InitializingBean, DisposableBean {
+
+	private final int port;
+	private final AtomicLong received = new AtomicLong();
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+	private ServerSocket serverSocket;
+
+	public SmtpSink(int port) {
+		this.port = port;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		Thread.ofPlatform().name("smtp-sink").daemon().start(this::acceptLoop);
+		log.info("SMTP sink listening on port {}; messages are counted and discarded", getPort());
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		serverSocket.close();
+		for (Socket socket : connections) {
+			socket.close();
+		}
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Number of messages accepted since startup.
+	 */
+	public long getReceived() {
+		return received.get();
+	}
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				connections.add(socket);
+				Thread.ofVirtual().name("smtp-sink-connection").start(() -> serve(socket));
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					log.warn("SMTP sink failed to accept a connection", e);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (socket) {
+			BufferedReader in = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+			OutputStream out = socket.getOutputStream();
+			reply(out, "220 loop-api SMTP sink");
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.length() < 4 ? line : line.substring(0, 4);
+				switch (command.toUpperCase(Locale.ROOT)) {
+					case "EHLO", "HELO" -> reply(out, "250 loop-api");
+					case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+					case "DATA" -> {
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// Discard the message body
+						}
+						received.incrementAndGet();
+						reply(out, "250 OK");
+					}
+					case "QUIT" -> {
+						reply(out, "221 Bye");
+						return;
+					}
+					default -> reply(out, "502 Command not implemented");
+				}
+			}
+		} catch (IOException e) {
+			log.debug("SMTP sink connection closed", e);
+		} finally {
+			connections.remove(socket);
+		}
+	}
+
+	private static void reply(OutputStream out, String reply) throws IOException {
+		out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+}
@@ -0,0 +1,156 @@
+package com.loop.api.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe counting Bloom filter of strings. Each cell is a 4-bit counter, sixteen to a {@code long}: about
+ * 4.8 bytes per element at a 1% false positive rate, in exchange for elements being removable as well as added.
+ * <p>
+ * {@link #mightContain} never returns false for an element that was added and not removed. Removing an element that
+ * was never added can cause false negatives, so callers must only remove what they added. A counter that reaches
+ * 15 sticks there and is never decremented, trading a false positive for never undercounting.
+ */
+public class CountingBloomFilter {
+
+	private static final int BITS_PER_CELL = 4;
+	private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+	private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+	private final AtomicLongArray words;
+	private final long cells;
+	private final int hashes;
+	private final AtomicLong occupiedCells = new AtomicLong();
+
+	private CountingBloomFilter(long cells, int hashes) {
+		this.words = new AtomicLongArray(Math.toIntExact((cells + CELLS_PER_WORD - 1) / CELLS_PER_WORD));
+		this.cells = cells;
+		this.hashes = hashes;
+	}
+
+	/**
+	 * Sizes a filter to hold {@code expectedElements} with the given false positive probability.
+	 */
+	public static CountingBloomFilter create(long expectedElements, double falsePositiveProbability) {
+		if (expectedElements < 1) {
+			throw new IllegalArgumentException("Expected elements must be positive");
+		}
+		if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+			throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+		}
+		long cells = Math.max(CELLS_PER_WORD,
+				(long) Math.ceil(-expectedElements * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+		int hashes = Math.max(1, (int) Math.round((double) cells / expectedElements * Math.log(2)));
+		return new CountingBloomFilter(cells, hashes);
+	}
+
+	public void add(CharSequence element) {
+		long hash = hash(element);
+		long h1 = mix(hash);
+		long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			increment(Math.floorMod(h1 + i * h2, cells));
+		}
+	}
+
+	public void remove(CharSequence element) {
+		long hash = hash(element);
+		long h1 = mix(hash);
+		long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			decrement(Math.floorMod(h1 + i * h2, cells));
+		}
+	}
+
+	public boolean mightContain(CharSequence element) {
+		long hash = hash(element);
+		long h1 = mix(hash);
+		long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			if (count(Math.floorMod(h1 + i * h2, cells)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The current chance that {@link #mightContain} answers true for an element not in the filter, from the share
+	 * of non-zero cells.
+	 */
+	public double expectedFalsePositiveProbability() {
+		return Math.pow((double) occupiedCells.get() / cells, hashes);
+	}
+
+	public long getCells() {
+		return cells;
+	}
+
+	public int getHashes() {
+		return hashes;
+	}
+
+	public long sizeInBytes() {
+		return (long) words.length() * Long.BYTES;
+	}
+
+	private long count(long cell) {
+		return (words.get((int) (cell / CELLS_PER_WORD)) >>> shift(cell)) & CELL_MASK;
+	}
+
+	private void increment(long cell) {
+		int word = (int) (cell / CELLS_PER_WORD);
+		int shift = shift(cell);
+		while (true) {
+			long current = words.get(word);
+			long count = (current >>> shift) & CELL_MASK;
+			if (count == CELL_MASK) {
+				return;
+			}
+			if (words.compareAndSet(word, current, current + (1L << shift))) {
+				if (count == 0) {
+					occupiedCells.incrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
+	private void decrement(long cell) {
+		int word = (int) (cell / CELLS_PER_WORD);
+		int shift = shift(cell);
+		while (true) {
+			long current = words.get(word);
+			long count = (current >>> shift) & CELL_MASK;
+			if (count == 0 || count == CELL_MASK) {
+				return;
+			}
+			if (words.compareAndSet(word, current, current - (1L << shift))) {
+				if (count == 1) {
+					occupiedCells.decrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
+	private static int shift(long cell) {
+		return (int) (cell % CELLS_PER_WORD) * BITS_PER_CELL;
+	}
+
+	// FNV-1a over the UTF-16 code units; mix() then spreads it into the two hashes for double hashing
+	private static long hash(CharSequence element) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < element.length(); i++) {
+			hash = (hash ^ element.charAt(i)) * 0x100000001B3L;
+		}
+		return hash;
+	}
+
+	// SplitMix64 finalizer
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,89 @@
+package com.loop.api.common.util;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts short secrets that have to be stored until they can be used, with AES-256-GCM under a key derived from an
+ * application secret. Output is base64url of {@code iv || ciphertext || tag}; a 60-character token encrypts to 118
+ * characters.
+ * <p>
+ * A context string, such as the row's recipient, is authenticated with the secret, so a ciphertext copied into another
+ * row does not decrypt.
+ */
+public final class SecretCipher {
+
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+	private static final int IV_BYTES = 12;
+	private static final int TAG_BITS = 128;
+	private static final int MIN_KEY_LENGTH = 32;
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKeySpec key;
+
+	public SecretCipher(String secret) {
+		if (secret == null || secret.length() < MIN_KEY_LENGTH) {
+			throw new IllegalArgumentException("Secret key must be at least " + MIN_KEY_LENGTH + " characters");
+		}
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+			this.key = new SecretKeySpec(hash, "AES");
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	public String encrypt(String plaintext, String context) {
+		byte[] iv = new byte[IV_BYTES];
+		RANDOM.nextBytes(iv);
+		try {
+			Cipher cipher = cipher(Cipher.ENCRYPT_MODE, iv, context);
+			byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+			return ENCODER.encodeToString(ByteBuffer.allocate(IV_BYTES + ciphertext.length)
+					.put(iv).put(ciphertext).array());
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not encrypt secret", e);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException if {@code encrypted} was not produced by this key for {@code context}
+	 */
+	public String decrypt(String encrypted, String context) {
+		byte[] bytes;
+		try {
+			bytes = DECODER.decode(encrypted);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Secret is not valid base64url", e);
+		}
+		if (bytes.length < IV_BYTES + TAG_BITS / 8) {
+			throw new IllegalArgumentException("Secret is too short to be encrypted");
+		}
+		try {
+			Cipher cipher = cipher(Cipher.DECRYPT_MODE, Arrays.copyOf(bytes, IV_BYTES), context);
+			return new String(cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES), StandardCharsets.UTF_8);
+		} catch (AEADBadTagException e) {
+			throw new IllegalArgumentException("Secret was not encrypted with this key and context", e);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not decrypt secret", e);
+		}
+	}
+
+	private Cipher cipher(int mode, byte[] iv, String context) throws GeneralSecurityException {
+		Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+		cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, iv));
+		cipher.updateAAD(context.getBytes(StandardCharsets.UTF_8));
+		return cipher;
+	}
+}
@@ -0,0 +1,101 @@
+package com.loop.api.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * An opaque bearer token of the form {@code selector.validator}, both parts base64url encoded.
+ * <p>
+ * Only the 12-byte selector and the SHA-256 hash of the 32-byte validator are stored, so lookups use a small
+ * fixed-width index and a leaked table cannot be replayed. Tokens issued before this format (plain UUID strings)
+ * still parse: their hash is SHA-256 of the whole string and their selector its first 12 bytes, which is how the
+ * V8 migration backfilled existing rows.
+ */
+public final class SplitToken {
+
+	public static final int SELECTOR_BYTES = 12;
+	public static final int VALIDATOR_HASH_BYTES = 32;
+
+	private static final int VALIDATOR_BYTES = 32;
+	private static final int MAX_LEGACY_LENGTH = 255;
+	private static final char SEPARATOR = '.';
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final String value;
+	private final byte[] selector;
+	private final byte[] validatorHash;
+
+	private SplitToken(String value, byte[] selector, byte[] validatorHash) {
+		this.value = value;
+		this.selector = selector;
+		this.validatorHash = validatorHash;
+	}
+
+	public static SplitToken generate() {
+		byte[] selector = new byte[SELECTOR_BYTES];
+		byte[] validator = new byte[VALIDATOR_BYTES];
+		RANDOM.nextBytes(selector);
+		RANDOM.nextBytes(validator);
+		return new SplitToken(ENCODER.encodeToString(selector) + SEPARATOR + ENCODER.encodeToString(validator),
+				selector, sha256(validator));
+	}
+
+	/**
+	 * Parses a token presented by a client. Returns empty if it cannot be a token this application issued.
+	 */
+	public static Optional<SplitToken> parse(String value) {
+		if (value == null || value.isEmpty()) {
+			return Optional.empty();
+		}
+
+		int separator = value.indexOf(SEPARATOR);
+		if (separator < 0) {
+			if (value.length() > MAX_LEGACY_LENGTH) {
+				return Optional.empty();
+			}
+			byte[] hash = sha256(value.getBytes(StandardCharsets.UTF_8));
+			return Optional.of(new SplitToken(value, Arrays.copyOf(hash, SELECTOR_BYTES), hash));
+		}
+
+		try {
+			byte[] selector = DECODER.decode(value.substring(0, separator));
+			byte[] validator = DECODER.decode(value.substring(separator + 1));
+			if (selector.length != SELECTOR_BYTES || validator.length != VALIDATOR_BYTES) {
+				return Optional.empty();
+			}
+			return Optional.of(new SplitToken(value, selector, sha256(validator)));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * The raw token to hand to the client. Never persist this.
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	public byte[] getSelector() {
+		return selector.clone();
+	}
+
+	public byte[] getValidatorHash() {
+		return validatorHash.clone();
+	}
+
+	private static byte[] sha256(byte[] input) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(input);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
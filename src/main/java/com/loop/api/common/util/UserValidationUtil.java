@@ -1,32 +1,102 @@
 package com.loop.api.common.util;
 
 import com.loop.api.common.exception.UserAlreadyExistsException;
+import com.loop.api.modules.user.repository.UniqueUserFields;
 import com.loop.api.modules.user.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 public class UserValidationUtil {
 
+	private static final String EMAIL = "email";
+	private static final String USERNAME = "username";
+	private static final String MOBILE = "mobile";
+
+	/**
+	 * Checks all three fields with one query and reports every conflict at once. This only gives a friendly error
+	 * up front; the unique constraints stay the real guard, see {@link #translateUniqueViolation}.
+	 */
 	public static void validateUniqueUserFields(String email, String username, String mobile,
 												UserRepository userRepository, Long excludeUserId) {
-		if (email != null) {
-			userRepository.findByEmail(email)
-					.filter(user -> !user.getId().equals(excludeUserId))
-					.ifPresent(user -> {
-						throw new UserAlreadyExistsException("User with email '" + email + "' already exists.");
-					});
+		if (email == null && username == null && mobile == null) {
+			return;
 		}
-		if (username != null) {
-			userRepository.findByUsername(username)
-					.filter(user -> !user.getId().equals(excludeUserId))
-					.ifPresent(user -> {
-						throw new UserAlreadyExistsException("User with username '" + username + "' already exists.");
-					});
+
+		List<UniqueUserFields> matches =
+				userRepository.findUniqueFieldConflicts(email, username, mobile, excludeUserId);
+		Map<String, String> conflicts = new LinkedHashMap<>();
+		if (email != null && matches.stream().anyMatch(match -> email.equals(match.email())))
+			conflicts.put(EMAIL, conflictMessage(EMAIL, email));
+		if (username != null && matches.stream().anyMatch(match -> username.equals(match.username())))
+			conflicts.put(USERNAME, conflictMessage(USERNAME, username));
+		if (mobile != null && matches.stream().anyMatch(match -> mobile.equals(match.mobile())))
+			conflicts.put(MOBILE, conflictMessage(MOBILE, mobile));
+		if (!conflicts.isEmpty()) {
+			throw new UserAlreadyExistsException(conflicts);
 		}
-		if (mobile != null) {
-			userRepository.findByMobile(mobile)
-					.filter(user -> !user.getId().equals(excludeUserId))
-					.ifPresent(user -> {
-						throw new UserAlreadyExistsException("User with mobile '" + mobile + "' already exists.");
-					});
+	}
+
+	/**
+	 * Maps a unique constraint violation on users, such as a concurrent signup that got past
+	 * {@link #validateUniqueUserFields}, to the {@link UserAlreadyExistsException} for its field. Anything else is
+	 * returned unchanged.
+	 */
+	public static RuntimeException translateUniqueViolation(DataIntegrityViolationException ex, String email,
+															String username, String mobile) {
+		String field = violatedField(ex);
+		String value = field == null ? null : switch (field) {
+			case EMAIL -> email;
+			case USERNAME -> username;
+			default -> mobile;
+		};
+		if (value == null) {
+			return ex;
 		}
+		return new UserAlreadyExistsException(Map.of(field, conflictMessage(field, value)));
+	}
+
+	private static String violatedField(DataIntegrityViolationException ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation) {
+				if (violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+					return null;
+				}
+				// Named constraints first: users_email_key and so on, PostgreSQL's defaults and the entity's names
+				String constraint = Objects.toString(violation.getConstraintName(), "").toLowerCase(Locale.ROOT);
+				for (String field : List.of(EMAIL, USERNAME, MOBILE)) {
+					if (constraint.contains("users_" + field + "_key")) {
+						return field;
+					}
+				}
+				// Otherwise the first column the driver names, e.g. "Key (email)=" or "USERS(EMAIL NULLS FIRST)";
+				// the column always comes before the duplicate value
+				return firstColumnIn(Objects.toString(violation.getSQLException().getMessage(), ""));
+			}
+		}
+		return null;
+	}
+
+	private static String firstColumnIn(String message) {
+		String lower = message.toLowerCase(Locale.ROOT);
+		String first = null;
+		int firstIndex = Integer.MAX_VALUE;
+		for (String field : List.of(EMAIL, USERNAME, MOBILE)) {
+			int index = lower.indexOf("(" + field);
+			if (index >= 0 && index < firstIndex) {
+				first = field;
+				firstIndex = index;
+			}
+		}
+		return first;
+	}
+
+	private static String conflictMessage(String field, String value) {
+		return "User with " + field + " '" + value + "' already exists.";
 	}
 }
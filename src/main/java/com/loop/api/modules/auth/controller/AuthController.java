@@ -27,7 +27,7 @@ public class AuthController {
 		this.authService = authService;
 	}
 
-	@Operation(summary = "Check if email is already registered", description = "Checks whether the provided email is" +
+	@Operation(summary = "Check if email is already registered", description = "Checks whether the provided email is " +
 			"already registered.")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Email is available"),
@@ -0,0 +1,62 @@
+package com.loop.api.modules.auth.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An email waiting in {@code email_outbox} for delivery. {@code secret} is the verification token or reset code
+ * the email carries, encrypted by {@link com.loop.api.modules.auth.service.EmailOutboxService}; it is only kept until
+ * the email is sent or given up on.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "email_outbox", indexes = {
+		@Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+public class OutboxEmail {
+
+	public enum Type {
+		VERIFICATION,
+		PASSWORD_RESET
+	}
+
+	public enum Status {
+		PENDING,
+		FAILED
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 32)
+	private Type type;
+
+	@Column(nullable = false)
+	private String recipient;
+
+	private String recipientName;
+
+	private String secret;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Status status = Status.PENDING;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(nullable = false)
+	private Instant nextAttemptAt;
+
+	@Column(nullable = false)
+	private Instant createdAt;
+
+	@Column(length = 1000)
+	private String lastError;
+}
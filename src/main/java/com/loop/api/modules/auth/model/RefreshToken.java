@@ -1,5 +1,6 @@
 package com.loop.api.modules.auth.model;
 
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.user.model.User;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -7,11 +8,15 @@ import lombok.Setter;
 
 import java.time.Instant;
 
+/**
+ * On PostgreSQL the table is range-partitioned by {@code expiryDate}, so unique keys include it; see the V11
+ * migration. The id alone is still unique since every row draws it from one sequence.
+ */
 @Entity
 @Getter
 @Setter
 @Table(name = "refresh_tokens", indexes = {
-		@Index(name = "idx_token", columnList = "token"),
+		@Index(name = "idx_refresh_tokens_selector", columnList = "selector, expiryDate", unique = true),
 		@Index(name = "idx_user_id", columnList = "user_id"),
 		@Index(name = "idx_expiry_date", columnList = "expiryDate")
 })
@@ -21,7 +26,16 @@ public class RefreshToken {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(nullable = false, unique = true)
+	@Column(nullable = false, length = SplitToken.SELECTOR_BYTES)
+	private byte[] selector;
+
+	@Column(nullable = false, length = SplitToken.VALIDATOR_HASH_BYTES)
+	private byte[] validatorHash;
+
+	/**
+	 * The raw token, known only when it is issued or presented by a client; never persisted.
+	 */
+	@Transient
 	private String token;
 
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -30,4 +44,10 @@ public class RefreshToken {
 
 	@Column(nullable = false)
 	private Instant expiryDate;
+
+	public void setCredentials(SplitToken splitToken) {
+		this.selector = splitToken.getSelector();
+		this.validatorHash = splitToken.getValidatorHash();
+		this.token = splitToken.getValue();
+	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.loop.api.modules.auth.model;
 
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.user.model.User;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -10,14 +11,25 @@ import java.time.Instant;
 @Entity
 @Getter
 @Setter
-@Table(name = "verification_tokens")
+@Table(name = "verification_tokens", indexes = {
+		@Index(name = "idx_verification_tokens_selector", columnList = "selector", unique = true)
+})
 public class VerificationToken {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(nullable = false, unique = true)
+	@Column(nullable = false, length = SplitToken.SELECTOR_BYTES)
+	private byte[] selector;
+
+	@Column(nullable = false, length = SplitToken.VALIDATOR_HASH_BYTES)
+	private byte[] validatorHash;
+
+	/**
+	 * The raw token, known only when it is issued or presented by a client; never persisted.
+	 */
+	@Transient
 	private String token;
 
 	@OneToOne(fetch = FetchType.LAZY)
@@ -26,4 +38,10 @@ public class VerificationToken {
 
 	@Column(nullable = false)
 	private Instant expiryDate;
+
+	public void setCredentials(SplitToken splitToken) {
+		this.selector = splitToken.getSelector();
+		this.validatorHash = splitToken.getValidatorHash();
+		this.token = splitToken.getValue();
+	}
 }
@@ -0,0 +1,57 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.model.RefreshToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+	private final RefreshTokenRepository refreshTokenRepository;
+
+	public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository) {
+		this.refreshTokenRepository = refreshTokenRepository;
+	}
+
+	@Override
+	public RefreshToken save(RefreshToken token) {
+		return refreshTokenRepository.save(token);
+	}
+
+	@Override
+	public Optional<RefreshToken> findByToken(SplitToken token) {
+		return refreshTokenRepository.findWithUser(token.getSelector(), token.getValidatorHash());
+	}
+
+	@Override
+	@Transactional
+	public Optional<RefreshToken> rotate(SplitToken oldToken, SplitToken newToken, Instant newExpiryDate) {
+		int rotated = refreshTokenRepository.rotate(oldToken.getSelector(), oldToken.getValidatorHash(),
+				newToken.getSelector(), newToken.getValidatorHash(), newExpiryDate, Instant.now());
+		if (rotated == 0) {
+			return Optional.empty();
+		}
+		return findByToken(newToken);
+	}
+
+	@Override
+	public void deleteByToken(SplitToken token) {
+		refreshTokenRepository.deleteByCredentials(token.getSelector(), token.getValidatorHash());
+	}
+
+	@Override
+	public void deleteByUserId(Long userId) {
+		refreshTokenRepository.deleteByUserId(userId);
+	}
+
+	@Override
+	public int deleteExpired(Instant cutoff, int limit) {
+		return refreshTokenRepository.deleteExpiredChunk(cutoff, limit);
+	}
+}
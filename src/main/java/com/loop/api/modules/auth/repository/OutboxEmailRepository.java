@@ -0,0 +1,34 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.modules.auth.model.OutboxEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+	/**
+	 * Locks up to {@code limit} due emails, skipping rows another dispatcher has already locked, so that
+	 * dispatchers on every node can poll at once without sending an email twice. Must run in a transaction.
+	 */
+	@Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+			"ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<OutboxEmail> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+	long countByStatus(OutboxEmail.Status status);
+
+	/**
+	 * Deletes at most {@code limit} emails that were given up on and created before {@code cutoff}, in its own short
+	 * transaction.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "DELETE FROM email_outbox WHERE id IN (SELECT id FROM email_outbox " +
+			"WHERE status = 'FAILED' AND created_at < :cutoff LIMIT :limit)", nativeQuery = true)
+	int deleteFailedChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -3,6 +3,9 @@ package com.loop.api.modules.auth.repository;
 import com.loop.api.modules.auth.model.PasswordResetCode;
 import com.loop.api.modules.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -13,6 +16,12 @@ public interface PasswordResetCodeRepository extends JpaRepository<PasswordReset
 
 	void deleteByUser(User user);
 
+	/**
+	 * Deletes at most {@code limit} rows that expired before {@code cutoff} in its own short transaction.
+	 */
 	@Transactional
-	void deleteAllByExpiryDateBefore(Instant expiryDate);
+	@Modifying
+	@Query(value = "DELETE FROM password_reset_code WHERE id IN " +
+			"(SELECT id FROM password_reset_code WHERE expiry_date < :cutoff LIMIT :limit)", nativeQuery = true)
+	int deleteExpiredChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
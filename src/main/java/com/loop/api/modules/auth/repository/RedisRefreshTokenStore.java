@@ -0,0 +1,169 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.model.RefreshToken;
+import com.loop.api.modules.user.dto.UserAccount;
+import com.loop.api.modules.user.service.UserCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps refresh tokens in Redis so that expiry is handled by key TTLs instead of table deletes.
+ * <p>
+ * Each token is a string key named after its selector, holding {@code userId:expiryEpochMillis:validatorHash};
+ * each user has a set of their selectors for {@link #deleteByUserId(Long)}. A token and its user's set hash to
+ * different slots, so every script touches exactly one key, passed in {@code KEYS}, and works on Redis Cluster and
+ * key-routing proxies. Consuming a token is a single compare-and-delete script, so a concurrent rotation or logout
+ * has exactly one winner; the set is updated afterwards. A crash in between leaves at most a stale set member, which
+ * is harmless and disappears with the set's own TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "redis")
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+	private static final String TOKEN_KEY_PREFIX = "loop-api:refresh-token:";
+	private static final String USER_KEY_PREFIX = "loop-api:refresh-tokens:user:";
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	// KEYS[1] token key; ARGV[1] hash. Deletes the token if its hash matches and returns its value, else nil
+	private static final RedisScript<String> CONSUME = RedisScript.of("""
+			local value = redis.call('GET', KEYS[1])
+			if not value then return false end
+			local hash = string.match(value, '^[^:]+:[^:]+:(.+)$')
+			if hash ~= ARGV[1] then return false end
+			redis.call('DEL', KEYS[1])
+			return value
+			""", String.class);
+
+	// KEYS[1] user set; ARGV[1] ttl ms, ARGV[2] selector to add, ARGV[3] selector to remove or empty
+	private static final RedisScript<Long> TRACK = RedisScript.of("""
+			if ARGV[3] ~= '' then redis.call('SREM', KEYS[1], ARGV[3]) end
+			redis.call('SADD', KEYS[1], ARGV[2])
+			redis.call('PEXPIRE', KEYS[1], ARGV[1])
+			return 1
+			""", Long.class);
+
+	@SuppressWarnings("rawtypes")
+	// KEYS[1] user set. Deletes the set and returns its members, so a token saved afterwards starts a new set
+	private static final RedisScript<List> TAKE_MEMBERS = RedisScript.of("""
+			local selectors = redis.call('SMEMBERS', KEYS[1])
+			redis.call('DEL', KEYS[1])
+			return selectors
+			""", List.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final UserCacheService userCacheService;
+
+	public RedisRefreshTokenStore(StringRedisTemplate redisTemplate, UserCacheService userCacheService) {
+		this.redisTemplate = redisTemplate;
+		this.userCacheService = userCacheService;
+	}
+
+	@Override
+	public RefreshToken save(RefreshToken token) {
+		long ttlMillis = token.getExpiryDate().toEpochMilli() - System.currentTimeMillis();
+		if (ttlMillis > 0) {
+			Long userId = token.getUser().getId();
+			String selector = encode(token.getSelector());
+			redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + selector,
+					userId + ":" + token.getExpiryDate().toEpochMilli() + ":" + encode(token.getValidatorHash()),
+					Duration.ofMillis(ttlMillis));
+			redisTemplate.execute(TRACK, List.of(userKey(userId)), String.valueOf(ttlMillis), selector, "");
+		}
+		return token;
+	}
+
+	@Override
+	public Optional<RefreshToken> findByToken(SplitToken token) {
+		return Optional.ofNullable(redisTemplate.opsForValue().get(tokenKey(token)))
+				.flatMap(value -> toRefreshToken(token, value));
+	}
+
+	@Override
+	public Optional<RefreshToken> rotate(SplitToken oldToken, SplitToken newToken, Instant newExpiryDate) {
+		long ttlMillis = newExpiryDate.toEpochMilli() - System.currentTimeMillis();
+		if (ttlMillis <= 0) {
+			return Optional.empty();
+		}
+		String oldValue = redisTemplate.execute(CONSUME, List.of(tokenKey(oldToken)),
+				encode(oldToken.getValidatorHash()));
+		if (oldValue == null) {
+			return Optional.empty();
+		}
+
+		String userId = userIdOf(oldValue);
+		String value = userId + ":" + newExpiryDate.toEpochMilli() + ":" + encode(newToken.getValidatorHash());
+		redisTemplate.opsForValue().set(tokenKey(newToken), value, Duration.ofMillis(ttlMillis));
+		redisTemplate.execute(TRACK, List.of(USER_KEY_PREFIX + userId), String.valueOf(ttlMillis),
+				encode(newToken.getSelector()), encode(oldToken.getSelector()));
+		return toRefreshToken(newToken, value);
+	}
+
+	@Override
+	public void deleteByToken(SplitToken token) {
+		String value = redisTemplate.execute(CONSUME, List.of(tokenKey(token)), encode(token.getValidatorHash()));
+		if (value != null) {
+			redisTemplate.opsForSet().remove(USER_KEY_PREFIX + userIdOf(value), encode(token.getSelector()));
+		}
+	}
+
+	@Override
+	public void deleteByUserId(Long userId) {
+		// Token keys live in other slots than the set, so they are deleted one by one rather than in the script
+		List<?> selectors = redisTemplate.execute(TAKE_MEMBERS, List.of(userKey(userId)));
+		if (selectors != null) {
+			selectors.forEach(selector -> redisTemplate.unlink(TOKEN_KEY_PREFIX + selector));
+		}
+	}
+
+	@Override
+	public int deleteExpired(Instant cutoff, int limit) {
+		// Expired tokens are removed by Redis key expiry
+		return 0;
+	}
+
+	private Optional<RefreshToken> toRefreshToken(SplitToken token, String value) {
+		String[] parts = value.split(":", 3);
+		byte[] storedHash = parts[2].getBytes(StandardCharsets.US_ASCII);
+		if (!MessageDigest.isEqual(storedHash, encode(token.getValidatorHash()).getBytes(StandardCharsets.US_ASCII))) {
+			return Optional.empty();
+		}
+		Long userId = Long.valueOf(parts[0]);
+		Instant expiryDate = Instant.ofEpochMilli(Long.parseLong(parts[1]));
+
+		return userCacheService.findById(userId).map(UserAccount::toUser).map(user -> {
+			RefreshToken refreshToken = new RefreshToken();
+			refreshToken.setSelector(token.getSelector());
+			refreshToken.setValidatorHash(token.getValidatorHash());
+			refreshToken.setUser(user);
+			refreshToken.setExpiryDate(expiryDate);
+			return refreshToken;
+		});
+	}
+
+	private static String userIdOf(String value) {
+		return value.substring(0, value.indexOf(':'));
+	}
+
+	private static String tokenKey(SplitToken token) {
+		return TOKEN_KEY_PREFIX + encode(token.getSelector());
+	}
+
+	private static String encode(byte[] bytes) {
+		return ENCODER.encodeToString(bytes);
+	}
+
+	private static String userKey(Long userId) {
+		return USER_KEY_PREFIX + userId;
+	}
+}
@@ -0,0 +1,123 @@
+package com.loop.api.modules.auth.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Manages the daily {@code refresh_tokens_pYYYYMMDD} partitions created by the V11 migration: partitions are
+ * created ahead of the longest refresh token lifetime, and a partition is dropped once every token in it has
+ * expired. Tokens outside any daily partition land in {@code refresh_tokens_default}, the only partition the chunked
+ * delete touches, see {@link #deleteExpiredFromDefault}. Does nothing when {@code refresh_tokens} is not partitioned (databases other than PostgreSQL).
+ */
+@Slf4j
+@Component
+public class RefreshTokenPartitions {
+
+	private static final String PARTITION_PREFIX = "refresh_tokens_p";
+	private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+	private static final String SELECT_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+			"JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+			"WHERE p.relname = 'refresh_tokens'";
+	private static final String DELETE_EXPIRED_FROM_DEFAULT = "DELETE FROM refresh_tokens_default WHERE id IN " +
+			"(SELECT id FROM refresh_tokens_default WHERE expiry_date < ? LIMIT ?)";
+	private static final String IS_PARTITIONED = "SELECT COUNT(*) FROM pg_partitioned_table t " +
+			"JOIN pg_class c ON c.oid = t.partrelid WHERE c.relname = 'refresh_tokens'";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int daysAhead;
+	private Boolean partitioned;
+
+	public RefreshTokenPartitions(JdbcTemplate jdbcTemplate,
+								  @Value("${jwt.refreshExpirationMs}") long refreshTokenDurationMs,
+								  @Value("${app.cleanup.refresh-token-partitions.extra-days:7}") int extraDays) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.daysAhead = (int) Duration.ofMillis(refreshTokenDurationMs).toDays() + 1 + extraDays;
+	}
+
+	public boolean isPartitioned() {
+		if (partitioned == null) {
+			String product = jdbcTemplate.execute(
+					(ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+			partitioned = "PostgreSQL".equals(product)
+					&& jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class) > 0;
+		}
+		return partitioned;
+	}
+
+	/**
+	 * Creates the missing daily partitions from {@code today} up to the longest token lifetime plus a margin.
+	 *
+	 * @return the number of partitions created
+	 */
+	public int createAhead(LocalDate today) {
+		Set<LocalDate> existing = new HashSet<>(partitionDays());
+		int created = 0;
+		for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+			if (existing.contains(day)) {
+				continue;
+			}
+			try {
+				jdbcTemplate.execute("CREATE TABLE " + PARTITION_PREFIX + day.format(SUFFIX) +
+						" PARTITION OF refresh_tokens FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+				created++;
+			} catch (DataAccessException e) {
+				// Typically rows for that day already sit in the default partition; they expire through the chunked delete
+				log.warn("Could not create refresh token partition for {}: {}", day, e.getMessage());
+			}
+		}
+		return created;
+	}
+
+	/**
+	 * Drops every daily partition whose whole range lies before {@code cutoff}.
+	 *
+	 * @return the number of partitions dropped
+	 */
+	public int dropBefore(LocalDate cutoff) {
+		int dropped = 0;
+		for (LocalDate day : partitionDays()) {
+			if (!day.plusDays(1).isAfter(cutoff)) {
+				jdbcTemplate.execute("DROP TABLE " + PARTITION_PREFIX + day.format(SUFFIX));
+				dropped++;
+			}
+		}
+		return dropped;
+	}
+
+	/**
+	 * Deletes at most {@code limit} rows of the default partition that expired before {@code cutoff}. Expired rows in
+	 * daily partitions are left for {@link #dropBefore}.
+	 */
+	public int deleteExpiredFromDefault(Instant cutoff, int limit) {
+		return jdbcTemplate.update(DELETE_EXPIRED_FROM_DEFAULT, Timestamp.from(cutoff), limit);
+	}
+
+	private List<LocalDate> partitionDays() {
+		return jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class).stream()
+				.filter(name -> name.startsWith(PARTITION_PREFIX))
+				.map(name -> {
+					try {
+						return LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+					} catch (DateTimeParseException e) {
+						return null;
+					}
+				})
+				.filter(Objects::nonNull)
+				.toList();
+	}
+}
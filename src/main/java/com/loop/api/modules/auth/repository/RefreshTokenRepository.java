@@ -1,18 +1,52 @@
 package com.loop.api.modules.auth.repository;
 
 import com.loop.api.modules.auth.model.RefreshToken;
-import com.loop.api.modules.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-	Optional<RefreshToken> findByToken(String token);
+	@Query("select t from RefreshToken t join fetch t.user " +
+			"where t.selector = :selector and t.validatorHash = :validatorHash")
+	Optional<RefreshToken> findWithUser(@Param("selector") byte[] selector,
+										@Param("validatorHash") byte[] validatorHash);
 
-	void deleteByUser(User user);
+	/**
+	 * Replaces a live token's value and expiry in place. The row lock taken by the update makes this the single
+	 * point of serialization for concurrent refreshes: only one caller sees a count of 1 for a given old token.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("update RefreshToken t " +
+			"set t.selector = :newSelector, t.validatorHash = :newValidatorHash, t.expiryDate = :newExpiryDate " +
+			"where t.selector = :oldSelector and t.validatorHash = :oldValidatorHash and t.expiryDate > :now")
+	int rotate(@Param("oldSelector") byte[] oldSelector,
+			   @Param("oldValidatorHash") byte[] oldValidatorHash,
+			   @Param("newSelector") byte[] newSelector,
+			   @Param("newValidatorHash") byte[] newValidatorHash,
+			   @Param("newExpiryDate") Instant newExpiryDate,
+			   @Param("now") Instant now);
 
 	@Transactional
-	void deleteAllByExpiryDateBefore(Instant expiryDate);
+	@Modifying
+	@Query("delete from RefreshToken t where t.selector = :selector and t.validatorHash = :validatorHash")
+	int deleteByCredentials(@Param("selector") byte[] selector, @Param("validatorHash") byte[] validatorHash);
+
+	@Transactional
+	@Modifying
+	@Query("delete from RefreshToken t where t.user.id = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+
+	/**
+	 * Deletes at most {@code limit} rows that expired before {@code cutoff} in its own short transaction.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+			"(SELECT id FROM refresh_tokens WHERE expiry_date < :cutoff LIMIT :limit)", nativeQuery = true)
+	int deleteExpiredChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,37 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.model.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage for issued refresh tokens, keyed by selector and validator hash. Tokens returned from a store always have
+ * their user loaded; their raw value is not stored and must be set by the caller if needed.
+ * <p>
+ * The backend is chosen with {@code app.security.refresh-tokens.store}: {@code jpa} (default) keeps them in the
+ * {@code refresh_tokens} table, {@code redis} keeps them as keys that expire on their own.
+ */
+public interface RefreshTokenStore {
+
+	RefreshToken save(RefreshToken token);
+
+	Optional<RefreshToken> findByToken(SplitToken token);
+
+	/**
+	 * Atomically replaces a live token with a new value and expiry. Returns empty if the old token is unknown or
+	 * expired, including when a concurrent call has already rotated it.
+	 */
+	Optional<RefreshToken> rotate(SplitToken oldToken, SplitToken newToken, Instant newExpiryDate);
+
+	void deleteByToken(SplitToken token);
+
+	void deleteByUserId(Long userId);
+
+	/**
+	 * Removes at most {@code limit} tokens that expired before {@code cutoff} and returns how many were removed.
+	 * Stores with native expiry may always return 0.
+	 */
+	int deleteExpired(Instant cutoff, int limit);
+}
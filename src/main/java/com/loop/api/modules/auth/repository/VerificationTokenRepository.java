@@ -3,17 +3,26 @@ package com.loop.api.modules.auth.repository;
 import com.loop.api.modules.auth.model.VerificationToken;
 import com.loop.api.modules.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
-	Optional<VerificationToken> findByToken(String token);
+	Optional<VerificationToken> findBySelectorAndValidatorHash(byte[] selector, byte[] validatorHash);
 
 	@Transactional
 	void deleteByUser(User user);
 
+	/**
+	 * Deletes at most {@code limit} rows that expired before {@code cutoff} in its own short transaction.
+	 */
 	@Transactional
-	void deleteAllByExpiryDateBefore(Instant expiryDate);
+	@Modifying
+	@Query(value = "DELETE FROM verification_tokens WHERE id IN " +
+			"(SELECT id FROM verification_tokens WHERE expiry_date < :cutoff LIMIT :limit)", nativeQuery = true)
+	int deleteExpiredChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.loop.api.modules.auth.service;
 
 import com.loop.api.common.exception.*;
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.common.util.UserValidationUtil;
 import com.loop.api.modules.auth.dto.LoginRequest;
 import com.loop.api.modules.auth.dto.LoginResponse;
 import com.loop.api.modules.auth.dto.RegisterRequest;
+import com.loop.api.modules.auth.model.OutboxEmail;
 import com.loop.api.modules.auth.model.PasswordResetCode;
 import com.loop.api.modules.auth.model.RefreshToken;
 import com.loop.api.modules.auth.model.VerificationToken;
@@ -12,22 +14,20 @@ import com.loop.api.modules.auth.repository.PasswordResetCodeRepository;
 import com.loop.api.modules.auth.repository.VerificationTokenRepository;
 import com.loop.api.modules.user.model.User;
 import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.modules.user.service.RegisteredEmailFilter;
+import com.loop.api.modules.user.service.UserCacheService;
 import com.loop.api.security.JwtTokenProvider;
 import com.loop.api.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -35,66 +35,84 @@ public class AuthService {
 	private final PasswordEncoder passwordEncoder;
 	private final JwtTokenProvider jwtTokenProvider;
 	private final RefreshTokenService refreshTokenService;
-	private final AuthenticationManager authenticationManager;
-	private final EmailService emailService;
+	private final EmailOutboxService emailOutboxService;
+	private final EmailSendCoalescer emailSendCoalescer;
 	private final VerificationTokenRepository verificationTokenRepository;
 	private final PasswordResetCodeRepository passwordResetCodeRepository;
+	private final UserCacheService userCacheService;
+	private final RegisteredEmailFilter registeredEmailFilter;
+	private final TransactionTemplate transactionTemplate;
 
 	@Value("${app.verification.token-expiration-hours}")
 	private int verificationTokenExpiryHours;
 
 	public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
 					   JwtTokenProvider jwtTokenProvider, RefreshTokenService refreshTokenService,
-					   AuthenticationManager authenticationManager,
-					   EmailService emailService,
+					   EmailOutboxService emailOutboxService,
+					   EmailSendCoalescer emailSendCoalescer,
 					   VerificationTokenRepository verificationTokenRepository,
-					   PasswordResetCodeRepository passwordResetCodeRepository) {
+					   PasswordResetCodeRepository passwordResetCodeRepository,
+					   UserCacheService userCacheService,
+					   RegisteredEmailFilter registeredEmailFilter,
+					   TransactionTemplate transactionTemplate) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.jwtTokenProvider = jwtTokenProvider;
 		this.refreshTokenService = refreshTokenService;
-		this.authenticationManager = authenticationManager;
-		this.emailService = emailService;
+		this.emailOutboxService = emailOutboxService;
+		this.emailSendCoalescer = emailSendCoalescer;
 		this.verificationTokenRepository = verificationTokenRepository;
 		this.passwordResetCodeRepository = passwordResetCodeRepository;
+		this.userCacheService = userCacheService;
+		this.registeredEmailFilter = registeredEmailFilter;
+		this.transactionTemplate = transactionTemplate;
 	}
 
 	public boolean isEmailRegistered(String email) {
-		try {
-			UserValidationUtil.validateUniqueUserFields(email, null, null, userRepository, null);
-			return false;
-		} catch (UserAlreadyExistsException e) {
-			return true;
-		}
+		return registeredEmailFilter.isRegistered(email, userRepository::existsByEmail);
 	}
 
 	public String registerUser(RegisterRequest request) {
 		UserValidationUtil.validateUniqueUserFields(
 				request.getEmail(), request.getUsername(), null, userRepository, null);
 
+		// Hashed outside the try block so that a ServiceBusyException surfaces as 503, not a registration error
+		String encodedPassword = passwordEncoder.encode(request.getPassword());
+
 		try {
-			User user = new User();
-			user.setEmail(request.getEmail());
-			user.setUsername(request.getUsername());
-			user.setPassword(passwordEncoder.encode(request.getPassword()));
-			userRepository.save(user);
-
-			String token = UUID.randomUUID().toString();
-			VerificationToken vt = new VerificationToken();
-			vt.setToken(token);
-			vt.setUser(user);
-			vt.setExpiryDate(Instant.now().plus(Duration.ofHours(verificationTokenExpiryHours)));
-			verificationTokenRepository.save(vt);
-
-			emailService.sendVerificationEmail(user.getEmail(), user.getUsername(), token);
-			return "User registered successfully";
+			// The user, their token and the verification email commit together; hashing stays outside the transaction
+			return transactionTemplate.execute(status -> {
+				User user = new User();
+				user.setEmail(request.getEmail());
+				user.setUsername(request.getUsername());
+				user.setPassword(encodedPassword);
+				userRepository.save(user);
+				registeredEmailFilter.add(user.getEmail());
+
+				VerificationToken vt = new VerificationToken();
+				vt.setCredentials(SplitToken.generate());
+				vt.setUser(user);
+				vt.setExpiryDate(Instant.now().plus(Duration.ofHours(verificationTokenExpiryHours)));
+				verificationTokenRepository.save(vt);
+
+				emailOutboxService.enqueueVerificationEmail(user.getEmail(), user.getUsername(), vt.getToken());
+				// A resend right after signup then keeps this token instead of sending a second email
+				emailSendCoalescer.recordSend(OutboxEmail.Type.VERIFICATION, user.getEmail());
+				return "User registered successfully";
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Lost a race with a concurrent signup for the same email or username
+			throw UserValidationUtil.translateUniqueViolation(e, request.getEmail(), request.getUsername(), null);
 		} catch (Exception e) {
 			throw new RuntimeException("Error registering user: " + e.getMessage());
 		}
 	}
 
+	@Transactional
 	public void verifyEmailToken(String token) {
-		VerificationToken vt = verificationTokenRepository.findByToken(token)
+		VerificationToken vt = SplitToken.parse(token)
+				.flatMap(t -> verificationTokenRepository.findBySelectorAndValidatorHash(t.getSelector(),
+						t.getValidatorHash()))
 				.orElseThrow(() -> new InvalidTokenException("Invalid token"));
 
 		if (vt.getExpiryDate().isBefore(Instant.now())) {
@@ -102,12 +120,14 @@ public class AuthService {
 		}
 
 		User user = vt.getUser();
+		userCacheService.evict(user);
 		user.setVerified(true);
 		userRepository.save(user);
 
 		verificationTokenRepository.delete(vt);
 	}
 
+	@Transactional
 	public void resendVerificationEmail(String email) {
 		User user = userRepository.findByEmail(email)
 				.orElseThrow(() -> new UserNotFoundException("User not found"));
@@ -116,63 +136,48 @@ public class AuthService {
 			throw new UserAlreadyVerifiedException("User is already verified");
 		}
 
+		// A repeat within the coalescing window keeps the pending token and the email already on its way
+		if (emailSendCoalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, user.getEmail())) {
+			return;
+		}
+
 		verificationTokenRepository.deleteByUser(user);
 
 		VerificationToken token = new VerificationToken();
-		token.setToken(UUID.randomUUID().toString());
+		token.setCredentials(SplitToken.generate());
 		token.setUser(user);
 		token.setExpiryDate(Instant.now().plus(Duration.ofHours(verificationTokenExpiryHours)));
 		verificationTokenRepository.save(token);
 
-		emailService.sendVerificationEmail(user.getEmail(), user.getUsername(), token.getToken());
+		emailOutboxService.enqueueVerificationEmail(user.getEmail(), user.getUsername(), token.getToken());
 	}
 
 	public LoginResponse loginUser(LoginRequest request) {
-		// First, check if the user exists
-		Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
-		if (userOpt.isEmpty()) {
-			throw new UserNotFoundException("This email is not registered. Would you like to sign up instead?");
-		}
-
-		try {
-			Authentication authentication = authenticationManager.authenticate(
-					new UsernamePasswordAuthenticationToken(
-							request.getEmail(),
-							request.getPassword()
-					)
-			);
-
-			// Authentication succeeded, get UserPrincipal
-			UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-
-			// Now generate JWT using their email or username
-			String accessToken = jwtTokenProvider.generateToken(userPrincipal);
+		// Load the account once; it is carried through password verification and refresh-token creation
+		User user = userRepository.findByEmail(request.getEmail())
+				.orElseThrow(() -> new UserNotFoundException("This email is not registered. Would you like to sign " +
+						"up instead?"));
 
-			// Generate refresh token and save to DB
-			RefreshToken refreshToken = refreshTokenService.createRefreshToken(userPrincipal.getId());
-
-			return LoginResponse.builder()
-					.userId(userPrincipal.getId())
-					.accessToken(accessToken)
-					.refreshToken(refreshToken.getToken())
-					.build();
-
-		} catch (AuthenticationException ex) {
+		if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
 			throw new InvalidCredentialsException("Invalid email or password");
 		}
+
+		UserPrincipal userPrincipal = new UserPrincipal(user);
+		String accessToken = jwtTokenProvider.generateToken(userPrincipal);
+		RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+
+		return LoginResponse.builder()
+				.userId(user.getId())
+				.accessToken(accessToken)
+				.refreshToken(refreshToken.getToken())
+				.build();
 	}
 
 	public LoginResponse refreshAccessToken(String refreshTokenStr) {
-		// Validate the refresh token and fetch user details
-		RefreshToken oldToken = refreshTokenService.verifyRefreshToken(refreshTokenStr);
-		if (oldToken == null) {
-			throw new InvalidTokenException("Refresh token is invalid or expired");
-		}
-		User user = oldToken.getUser();
-
-		// Delete old refresh token and generate a new one
-		refreshTokenService.deleteByToken(oldToken.getToken());
-		RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
+		// Swap the old refresh token for a new one in a single atomic update; the user comes back with it
+		RefreshToken newRefreshToken = refreshTokenService.rotateRefreshToken(refreshTokenStr)
+				.orElseThrow(() -> new InvalidTokenException("Refresh token is invalid or expired"));
+		User user = newRefreshToken.getUser();
 
 		// Generate new access token
 		UserPrincipal userPrincipal = new UserPrincipal(user);
@@ -202,6 +207,10 @@ public class AuthService {
 		User user = userRepository.findByEmail(email)
 				.orElseThrow(() -> new UserNotFoundException("This email is not registered"));
 
+		if (emailSendCoalescer.isCoalesced(OutboxEmail.Type.PASSWORD_RESET, user.getEmail())) {
+			return;
+		}
+
 		passwordResetCodeRepository.deleteByUser(user);
 
 		SecureRandom secureRandom = new SecureRandom();
@@ -214,7 +223,7 @@ public class AuthService {
 
 		passwordResetCodeRepository.save(passwordResetCode);
 
-		emailService.sendResetPasswordEmail(user.getEmail(), user.getUsername(), code);
+		emailOutboxService.enqueueResetPasswordEmail(user.getEmail(), user.getUsername(), code);
 	}
 
 	private PasswordResetCode getValidResetCode(String email, String code) {
@@ -231,6 +240,7 @@ public class AuthService {
 		PasswordResetCode resetCode = getValidResetCode(email, code);
 
 		User user = resetCode.getUser();
+		userCacheService.evict(user);
 		user.setPassword(passwordEncoder.encode(newPassword));
 		userRepository.save(user);
 
@@ -0,0 +1,136 @@
+package com.loop.api.modules.auth.service;
+
+import com.loop.api.common.util.SecretCipher;
+import com.loop.api.modules.auth.model.OutboxEmail;
+import com.loop.api.modules.auth.repository.OutboxEmailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes outgoing emails to the outbox and tracks their delivery attempts. Enqueueing requires the caller's
+ * transaction, so an email is stored if and only if the token it carries is.
+ * <p>
+ * The token or code an email carries is usable by whoever reads it, so it is stored encrypted with
+ * {@code app.email.outbox.secret-key} and bound to the recipient; {@link #secretOf(OutboxEmail)} recovers it for
+ * sending.
+ */
+@Service
+public class EmailOutboxService {
+
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private final OutboxEmailRepository outboxEmailRepository;
+	private final int maxAttempts;
+	private final Duration backoff;
+	private final Duration maxBackoff;
+	private final Duration claimTimeout;
+	private final SecretCipher secretCipher;
+
+	public EmailOutboxService(OutboxEmailRepository outboxEmailRepository,
+							  @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+							  @Value("${app.email.outbox.backoff:30s}") Duration backoff,
+							  @Value("${app.email.outbox.max-backoff:1h}") Duration maxBackoff,
+							  @Value("${app.email.outbox.claim-timeout:5m}") Duration claimTimeout,
+							  @Value("${app.email.outbox.secret-key}") String secretKey) {
+		this.outboxEmailRepository = outboxEmailRepository;
+		this.maxAttempts = maxAttempts;
+		this.backoff = backoff;
+		this.maxBackoff = maxBackoff;
+		this.claimTimeout = claimTimeout;
+		this.secretCipher = new SecretCipher(secretKey);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueVerificationEmail(String to, String firstName, String token) {
+		enqueue(OutboxEmail.Type.VERIFICATION, to, firstName, token);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueResetPasswordEmail(String to, String firstName, String code) {
+		enqueue(OutboxEmail.Type.PASSWORD_RESET, to, firstName, code);
+	}
+
+	/**
+	 * Claims up to {@code limit} due emails for this dispatcher by pushing their next attempt past the claim
+	 * timeout. The claim commits before anything is sent, so no row lock is held during SMTP; if this node dies
+	 * mid-send, the emails become due again once the claim times out.
+	 */
+	@Transactional
+	public List<OutboxEmail> claimDue(int limit) {
+		Instant now = Instant.now();
+		List<OutboxEmail> emails = outboxEmailRepository.lockDue(now, limit);
+		for (OutboxEmail email : emails) {
+			email.setAttempts(email.getAttempts() + 1);
+			email.setNextAttemptAt(now.plus(claimTimeout));
+		}
+		return emails;
+	}
+
+	/**
+	 * The token or code to put in the email.
+	 *
+	 * @throws IllegalArgumentException if the stored secret was not encrypted with the current key
+	 */
+	public String secretOf(OutboxEmail email) {
+		return secretCipher.decrypt(email.getSecret(), email.getRecipient());
+	}
+
+	@Transactional
+	public void markSent(Long id) {
+		outboxEmailRepository.deleteById(id);
+	}
+
+	/**
+	 * Schedules the next attempt with exponential backoff, or gives up once the attempts are used up.
+	 *
+	 * @return whether the email was given up on
+	 */
+	@Transactional
+	public boolean markFailed(Long id, String error) {
+		OutboxEmail email = outboxEmailRepository.findById(id).orElse(null);
+		if (email == null) {
+			return false;
+		}
+
+		email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+				? error.substring(0, MAX_ERROR_LENGTH) : error);
+		if (email.getAttempts() >= maxAttempts) {
+			email.setStatus(OutboxEmail.Status.FAILED);
+			email.setSecret(null);
+			return true;
+		}
+		email.setNextAttemptAt(Instant.now().plus(backoffFor(email.getAttempts())));
+		return false;
+	}
+
+	public long countPending() {
+		return outboxEmailRepository.countByStatus(OutboxEmail.Status.PENDING);
+	}
+
+	public long countFailed() {
+		return outboxEmailRepository.countByStatus(OutboxEmail.Status.FAILED);
+	}
+
+	Duration backoffFor(int attempts) {
+		Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+		return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+	}
+
+	private void enqueue(OutboxEmail.Type type, String to, String firstName, String secret) {
+		Instant now = Instant.now();
+		OutboxEmail email = new OutboxEmail();
+		email.setType(type);
+		email.setRecipient(to);
+		email.setRecipientName(firstName);
+		email.setSecret(secretCipher.encrypt(secret, to));
+		email.setCreatedAt(now);
+		email.setNextAttemptAt(now);
+		outboxEmailRepository.save(email);
+	}
+}
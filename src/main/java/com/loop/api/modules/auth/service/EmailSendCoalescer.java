@@ -0,0 +1,169 @@
+package com.loop.api.modules.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loop.api.modules.auth.model.OutboxEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Collapses repeated verification and reset emails to the same recipient within a short window, so that hammering
+ * "resend" keeps the pending token and sends one email. Each node remembers recent sends in memory; with Redis
+ * enabled a {@code SET NX} key with the window as TTL enforces the window across the cluster. If Redis is
+ * unreachable the local decision stands.
+ * <p>
+ * A send recorded inside a transaction that rolls back is forgotten, so a retry is not suppressed. Sends that are not
+ * requested by the user, such as the verification email at signup, are registered with {@link #recordSend} so that
+ * a resend right after them is coalesced too. Suppressed sends
+ * are counted as {@code email.coalesced}, tagged by {@code type} and by the {@code level} that caught them.
+ */
+@Slf4j
+@Component
+public class EmailSendCoalescer {
+
+	private static final String KEY_PREFIX = "loop-api:email-coalesce:";
+
+	@Nullable
+	private final Cache<String, Boolean> recentSends;
+	@Nullable
+	private final StringRedisTemplate redisTemplate;
+	private final Duration window;
+	private final MeterRegistry meterRegistry;
+
+	public EmailSendCoalescer(@Value("${app.email.coalesce.window:60s}") Duration window,
+							  @Value("${app.email.coalesce.local-maximum-size:10000}") long maximumSize,
+							  @Value("${app.email.coalesce.redis-enabled:${app.cache.redis.enabled:true}}")
+							  boolean redisEnabled,
+							  ObjectProvider<StringRedisTemplate> redisTemplate,
+							  MeterRegistry meterRegistry) {
+		boolean enabled = !window.isZero() && !window.isNegative();
+		this.window = window;
+		this.recentSends = enabled
+				? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(window).build()
+				: null;
+		this.redisTemplate = enabled && redisEnabled ? redisTemplate.getObject() : null;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Returns true if an email of this type already went to the recipient within the window, in which case the
+	 * caller should skip it. Otherwise records this send and returns false.
+	 */
+	public boolean isCoalesced(OutboxEmail.Type type, String recipient) {
+		if (recentSends == null) {
+			return false;
+		}
+		String key = key(type, recipient);
+		if (recentSends.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+			suppressed(type, "local");
+			return true;
+		}
+		if (redisTemplate != null && !acquireInRedis(key)) {
+			suppressed(type, "redis");
+			return true;
+		}
+		forgetOnRollback(key);
+		return false;
+	}
+
+	/**
+	 * Opens the window for an email the caller sends unconditionally. Inside a transaction this happens only once it
+	 * commits.
+	 */
+	public void recordSend(OutboxEmail.Type type, String recipient) {
+		if (recentSends == null) {
+			return;
+		}
+		String key = key(type, recipient);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			record(key);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				record(key);
+			}
+		});
+	}
+
+	private void record(String key) {
+		recentSends.put(key, Boolean.TRUE);
+		if (redisTemplate != null) {
+			try {
+				redisTemplate.opsForValue().set(KEY_PREFIX + key, "1", window);
+			} catch (RuntimeException ex) {
+				log.warn("Could not record the email coalescing window in Redis", ex);
+			}
+		}
+	}
+
+	private boolean acquireInRedis(String key) {
+		try {
+			return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, "1", window));
+		} catch (RuntimeException ex) {
+			log.warn("Could not check the email coalescing window in Redis; deciding locally", ex);
+			return true;
+		}
+	}
+
+	private void forgetOnRollback(String key) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					forget(key);
+				}
+			}
+		});
+	}
+
+	private void forget(String key) {
+		recentSends.invalidate(key);
+		if (redisTemplate != null) {
+			try {
+				redisTemplate.delete(KEY_PREFIX + key);
+			} catch (RuntimeException ex) {
+				log.warn("Could not clear the email coalescing window in Redis", ex);
+			}
+		}
+	}
+
+	private void suppressed(OutboxEmail.Type type, String level) {
+		Counter.builder("email.coalesced")
+				.tag("type", type.name())
+				.tag("level", level)
+				.description("Verification and reset emails skipped as repeats within the coalescing window")
+				.register(meterRegistry)
+				.increment();
+	}
+
+	// Recipients are hashed so that email addresses do not end up in Redis keys
+	private static String key(OutboxEmail.Type type, String recipient) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256")
+					.digest(recipient.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+			return type.name() + ":" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -1,17 +1,22 @@
 package com.loop.api.modules.auth.service;
 
 import com.loop.api.common.constants.ApiRoutes;
+import com.loop.api.common.mail.InlineImage;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
+/**
+ * Renders and sends emails. Called by the outbox dispatcher, which retries on the exceptions thrown here;
+ * application code enqueues emails through {@link EmailOutboxService} instead.
+ */
 @Slf4j
 @Service
 public class EmailService {
@@ -20,6 +25,7 @@ public class EmailService {
 	private final String baseUrl;
 	private final String contextPath;
 	private final SpringTemplateEngine templateEngine;
+	private final InlineImage logo;
 
 	public EmailService(JavaMailSender mailSender,
 						@Value("${app.base-url}") String baseUrl,
@@ -29,63 +35,48 @@ public class EmailService {
 		this.baseUrl = baseUrl;
 		this.contextPath = contextPath;
 		this.templateEngine = templateEngine;
+		this.logo = InlineImage.load(new ClassPathResource("static/images/logo.png"), "loop-logo", "image/png");
 	}
 
-	@Async
-	public void sendVerificationEmail(String to, String firstName, String token) {
+	public void sendVerificationEmail(String to, String firstName, String token) throws MessagingException {
 		String link = baseUrl + contextPath + ApiRoutes.Auth.VERIFY + "?token=" + token;
 
-		try {
-			MimeMessage message = mailSender.createMimeMessage();
-			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-			helper.setTo(to);
-			helper.setSubject("Confirm your email");
+		helper.setTo(to);
+		helper.setSubject("Confirm your email");
 
-			Context thymeleafContext = new Context();
-			thymeleafContext.setVariable("link", link);
-			thymeleafContext.setVariable("firstName", firstName);
+		Context thymeleafContext = new Context();
+		thymeleafContext.setVariable("link", link);
+		thymeleafContext.setVariable("firstName", firstName);
 
-			String htmlContent = templateEngine.process("verification-email", thymeleafContext);
-			helper.setText(htmlContent, true);
+		String htmlContent = templateEngine.process("verification-email", thymeleafContext);
+		helper.setText(htmlContent, true);
 
-			ClassPathResource imageResource = new ClassPathResource("static/images/logo.png");
+		helper.getMimeMultipart().addBodyPart(logo.toBodyPart());
 
-			helper.addInline("loop-logo", imageResource, "image/png");
-
-			mailSender.send(message);
-			log.info("✅ Verification email sent to {}", to);
-
-		} catch (Exception e) {
-			log.error("❌ Failed to send verification email to {}", to, e);
-		}
+		mailSender.send(message);
+		log.info("✅ Verification email sent to {}", to);
 	}
 
-	public void sendResetPasswordEmail(String to, String firstName, String code) {
-
-		try {
-			MimeMessage message = mailSender.createMimeMessage();
-			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-			helper.setTo(to);
-			helper.setSubject("Your password reset code");
-
-			Context thymeleafContext = new Context();
-			thymeleafContext.setVariable("firstName", firstName);
-			thymeleafContext.setVariable("code", code);
+	public void sendResetPasswordEmail(String to, String firstName, String code) throws MessagingException {
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-			String htmlContent = templateEngine.process("reset-password-email", thymeleafContext);
-			helper.setText(htmlContent, true);
+		helper.setTo(to);
+		helper.setSubject("Your password reset code");
 
-			ClassPathResource imageResource = new ClassPathResource("static/images/logo.png");
+		Context thymeleafContext = new Context();
+		thymeleafContext.setVariable("firstName", firstName);
+		thymeleafContext.setVariable("code", code);
 
-			helper.addInline("loop-logo", imageResource, "image/png");
+		String htmlContent = templateEngine.process("reset-password-email", thymeleafContext);
+		helper.setText(htmlContent, true);
 
-			mailSender.send(message);
-			log.info("✅ Reset password email sent to {}", to);
+		helper.getMimeMultipart().addBodyPart(logo.toBodyPart());
 
-		} catch (Exception e) {
-			log.error("❌ Failed to send verification email to {}", to, e);
-		}
+		mailSender.send(message);
+		log.info("✅ Reset password email sent to {}", to);
 	}
 }
@@ -2,39 +2,68 @@ package com.loop.api.modules.auth.service;
 
 import com.loop.api.common.exception.InvalidTokenException;
 import com.loop.api.common.exception.UserNotFoundException;
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.auth.model.RefreshToken;
-import com.loop.api.modules.auth.repository.RefreshTokenRepository;
+import com.loop.api.modules.auth.repository.RefreshTokenStore;
 import com.loop.api.modules.user.model.User;
 import com.loop.api.modules.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Optional;
 
 @Service
 public class RefreshTokenService {
 
-	private final RefreshTokenRepository refreshTokenRepository;
+	private final RefreshTokenStore refreshTokenStore;
 	private final UserRepository userRepository;
 	private final Long refreshTokenDurationMs;
 
-	public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+	public RefreshTokenService(RefreshTokenStore refreshTokenStore,
 							   UserRepository userRepository,
 							   @Value("${jwt.refreshExpirationMs}") Long refreshTokenDurationMs) {
-		this.refreshTokenRepository = refreshTokenRepository;
+		this.refreshTokenStore = refreshTokenStore;
 		this.userRepository = userRepository;
 		this.refreshTokenDurationMs = refreshTokenDurationMs;
 	}
 
 	public RefreshToken createRefreshToken(Long userId) {
+		return createRefreshToken(userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User " +
+				"not found with ID: " + userId)));
+	}
+
+	public RefreshToken createRefreshToken(User user) {
 		RefreshToken token = new RefreshToken();
-		token.setUser(userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found " +
-				"with ID: " + userId)));
-		token.setToken(UUID.randomUUID().toString());
+		token.setUser(user);
+		token.setCredentials(SplitToken.generate());
 		token.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
 
-		return refreshTokenRepository.save(token);
+		return refreshTokenStore.save(token);
+	}
+
+	/**
+	 * Atomically swaps a live refresh token for a new one and returns it with its user loaded. Empty if the token is
+	 * malformed, unknown or expired, or if a concurrent call with the same token won: the store serializes them.
+	 * <p>
+	 * On a partitioned table the winning update moves the row to another partition, and PostgreSQL reports the
+	 * losers as a serialization failure rather than a zero count; that is the same lost race.
+	 */
+	public Optional<RefreshToken> rotateRefreshToken(String oldToken) {
+		SplitToken newToken = SplitToken.generate();
+		Optional<RefreshToken> rotated;
+		try {
+			rotated = SplitToken.parse(oldToken)
+					.flatMap(token -> refreshTokenStore.rotate(token, newToken,
+							Instant.now().plusMillis(refreshTokenDurationMs)));
+		} catch (ConcurrencyFailureException e) {
+			rotated = Optional.empty();
+		}
+		return rotated.map(token -> {
+			token.setToken(newToken.getValue());
+			return token;
+		});
 	}
 
 	public boolean isExpired(RefreshToken token) {
@@ -42,20 +71,25 @@ public class RefreshTokenService {
 	}
 
 	public void deleteByUserId(Long userId) {
-		User user = userRepository.findById(userId)
-				.orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+		if (!userRepository.existsById(userId)) {
+			throw new UserNotFoundException("User not found with ID: " + userId);
+		}
 
-		refreshTokenRepository.deleteByUser(user);
+		refreshTokenStore.deleteByUserId(userId);
 	}
 
 	public void deleteByToken(String token) {
-		refreshTokenRepository.findByToken(token)
-				.ifPresent(refreshTokenRepository::delete);
+		SplitToken.parse(token).ifPresent(refreshTokenStore::deleteByToken);
 	}
 
 	public RefreshToken verifyRefreshToken(String tokenStr) {
-		return refreshTokenRepository.findByToken(tokenStr)
+		return SplitToken.parse(tokenStr)
+				.flatMap(refreshTokenStore::findByToken)
 				.filter(token -> !isExpired(token))
+				.map(token -> {
+					token.setToken(tokenStr);
+					return token;
+				})
 				.orElseThrow(() -> new InvalidTokenException("Refresh token is invalid or expired"));
 	}
 }
@@ -2,19 +2,26 @@ package com.loop.api.modules.user.controller;
 
 import com.loop.api.common.constants.ApiRoutes;
 import com.loop.api.common.dto.response.StandardResponse;
+import com.loop.api.modules.user.dto.UserListRequest;
+import com.loop.api.modules.user.dto.UserPageResponse;
 import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.service.UserExportService;
 import com.loop.api.modules.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Admin - User Management", description = "Endpoints for admins to view, manage, and delete user accounts")
 @RestController
@@ -22,26 +29,59 @@ import java.util.List;
 public class AdminUserController {
 
 	private final UserService userService;
+	private final UserExportService userExportService;
 
-	public AdminUserController(UserService userService) {
+	public AdminUserController(UserService userService, UserExportService userExportService) {
 		this.userService = userService;
+		this.userExportService = userExportService;
 	}
 
-	// Get all users
+	// List users, one page at a time
 	@Operation(
-			summary = "Get all users (Admin only)",
-			description = "Returns a list of all registered users. Requires ADMIN role."
+			summary = "List users (Admin only)",
+			description = "Returns one page of users in ID order, optionally filtered. Pass the returned nextCursor " +
+					"as cursor to fetch the following page. Requires ADMIN role."
 	)
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "List of users retrieved successfully"),
+			@ApiResponse(responseCode = "200", description = "Page of users retrieved successfully"),
+			@ApiResponse(responseCode = "400", description = "Invalid paging or filter parameters"),
 			@ApiResponse(responseCode = "403", description = "Forbidden - user does not have ADMIN role"),
 			@ApiResponse(responseCode = "500", description = "Unexpected server error")
 	})
 	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<StandardResponse<List<UserResponse>>> getAllUsers() {
-		List<UserResponse> users = userService.getAllUsers();
-		return ResponseEntity.ok(StandardResponse.success(HttpStatus.OK, "Fetched all users", users));
+	public ResponseEntity<StandardResponse<UserPageResponse>> getAllUsers(
+			@Valid @ParameterObject UserListRequest request) {
+		UserPageResponse page = userService.listUsers(request);
+		return ResponseEntity.ok(StandardResponse.success(HttpStatus.OK, "Fetched users", page));
+	}
+
+	// Export every user as a download
+	@Operation(
+			summary = "Export all users (Admin only)",
+			description = "Streams every user in ID order as NDJSON (one JSON object per line) or CSV with a header " +
+					"row. Rows are written as they are read, so exports of any size use constant memory. " +
+					"Requires ADMIN role."
+	)
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+			@ApiResponse(responseCode = "400", description = "Unsupported export format"),
+			@ApiResponse(responseCode = "403", description = "Forbidden - user does not have ADMIN role")
+	})
+	@GetMapping("/export")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<StreamingResponseBody> exportUsers(
+			@Parameter(description = "ndjson or csv", example = "csv")
+			@RequestParam(defaultValue = "ndjson") String format) {
+		UserExportService.Format exportFormat = UserExportService.Format.fromParameter(format);
+		StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+		return ResponseEntity.ok()
+				.contentType(exportFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+						.filename("users." + exportFormat.getExtension())
+						.build()
+						.toString())
+				.body(body);
 	}
 
 	// Get a single user
@@ -0,0 +1,30 @@
+package com.loop.api.modules.user.dto;
+
+import com.loop.api.modules.user.model.User;
+
+/**
+ * The parts of a user that authentication needs, as cached by UserCacheService. Immutable and without the password
+ * hash, so it is safe to share between requests and to store in Redis.
+ */
+public record UserAccount(Long id, String email, String username, boolean admin, boolean verified,
+						  String profileUrl) {
+
+	public static UserAccount from(User user) {
+		return new UserAccount(user.getId(), user.getEmail(), user.getUsername(), user.isAdmin(), user.isVerified(),
+				user.getProfileUrl());
+	}
+
+	/**
+	 * A new, detached user with these fields and no password, for code that works with entities.
+	 */
+	public User toUser() {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setUsername(username);
+		user.setAdmin(admin);
+		user.setVerified(verified);
+		user.setProfileUrl(profileUrl);
+		return user;
+	}
+}
@@ -0,0 +1,33 @@
+package com.loop.api.modules.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Filters and position for listing users; unset filters match everyone")
+public class UserListRequest {
+	@Schema(description = "nextCursor of the previous page; omit for the first page", example = "1042")
+	private Long cursor;
+
+	@Min(value = 1, message = "Limit must be at least 1")
+	@Schema(description = "Page size, capped by the server", example = "50")
+	private Integer limit;
+
+	@Schema(description = "Only users with this verification state", example = "true")
+	private Boolean verified;
+
+	@Schema(description = "Only users with this admin flag", example = "false")
+	private Boolean admin;
+
+	@Size(min = 1, max = 255, message = "Email prefix must be between 1 and 255 characters")
+	@Schema(description = "Only users whose email starts with this, case-sensitive", example = "alice@")
+	private String emailPrefix;
+
+	@Size(min = 1, max = 20, message = "Username prefix must be between 1 and 20 characters")
+	@Schema(description = "Only users whose username starts with this, case-sensitive", example = "ali")
+	private String usernamePrefix;
+}
@@ -0,0 +1,22 @@
+package com.loop.api.modules.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of users, ordered by ID")
+public class UserPageResponse {
+	@Schema(description = "Users on this page")
+	private List<UserResponse> users;
+
+	@Schema(description = "Pass as cursor to fetch the next page; null on the last page", example = "1092")
+	private Long nextCursor;
+}
@@ -13,7 +13,15 @@ import lombok.ToString;
 		indexes = {
 				@Index(name = "idx_user_email", columnList = "email"),
 				@Index(name = "idx_user_mobile", columnList = "mobile"),
-				@Index(name = "idx_user_username", columnList = "username")
+				@Index(name = "idx_user_username", columnList = "username"),
+				@Index(name = "idx_user_verified_id", columnList = "verified, id"),
+				@Index(name = "idx_user_admin_id", columnList = "admin, id")
+		},
+		// Named as PostgreSQL names the V1 constraints, so violations read the same on every database
+		uniqueConstraints = {
+				@UniqueConstraint(name = "users_email_key", columnNames = "email"),
+				@UniqueConstraint(name = "users_mobile_key", columnNames = "mobile"),
+				@UniqueConstraint(name = "users_username_key", columnNames = "username")
 		}
 )
 public class User {
@@ -21,16 +29,16 @@ public class User {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(nullable = false, unique = true)
+	@Column(nullable = false)
 	private String email;
 
-	@Column(unique = true)
+	@Column
 	private String mobile;
 
 	@Column(nullable = false)
 	private String password;
 
-	@Column(nullable = false, unique = true)
+	@Column(nullable = false)
 	private String username;
 
 	@Column(nullable = false)
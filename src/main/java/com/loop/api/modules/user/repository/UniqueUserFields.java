@@ -0,0 +1,7 @@
+package com.loop.api.modules.user.repository;
+
+/**
+ * The unique columns of a user, as selected by {@link UserRepository#findUniqueFieldConflicts}.
+ */
+public record UniqueUserFields(String email, String username, String mobile) {
+}
@@ -1,12 +1,61 @@
 package com.loop.api.modules.user.repository;
 
+import com.loop.api.modules.user.dto.UserResponse;
 import com.loop.api.modules.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserResponseQueries {
+    String EXPORT_FETCH_SIZE = "1000";
 
-public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     Optional<User> findByMobile(String mobile);
-}
\ No newline at end of file
+    boolean existsByEmail(String email);
+
+    /**
+     * Users other than {@code excludeId} holding any of the given email, username or mobile, in one query. Null
+     * arguments match nothing.
+     */
+    @Query("select new com.loop.api.modules.user.repository.UniqueUserFields(u.email, u.username, u.mobile) " +
+            "from User u where (u.email = :email or u.username = :username or u.mobile = :mobile) " +
+            "and (:excludeId is null or u.id <> :excludeId)")
+    List<UniqueUserFields> findUniqueFieldConflicts(String email, String username, String mobile, Long excludeId);
+
+    @Query("select new com.loop.api.modules.user.dto.UserResponse(u.id, u.email, u.mobile, u.username, u.admin, " +
+            "u.profileUrl) from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(Long id);
+
+    /**
+     * Streams every user in ID order from a server-side cursor, EXPORT_FETCH_SIZE rows per round trip. Rows are
+     * DTOs, so nothing accumulates in the persistence context. Must be consumed inside a transaction and closed;
+     * on PostgreSQL the fetch size is only honoured inside one.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.loop.api.modules.user.dto.UserResponse(u.id, u.email, u.mobile, u.username, u.admin, " +
+            "u.profileUrl) from User u order by u.id")
+    Stream<UserResponse> streamResponsesOrderedById();
+
+    /**
+     * Streams every email address, EXPORT_FETCH_SIZE rows per round trip, to rebuild RegisteredEmailFilter. Must be
+     * consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
+}
@@ -0,0 +1,19 @@
+package com.loop.api.modules.user.repository;
+
+import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read queries that select only the {@link UserResponse} columns straight into DTOs, so no managed entity,
+ * dirty-checking snapshot or password hash is loaded. Implemented by {@link UserResponseQueriesImpl}.
+ */
+public interface UserResponseQueries {
+
+	/**
+	 * Users matching {@code filter} in ID order, at most {@code limit} of them.
+	 */
+	List<UserResponse> findResponses(Specification<User> filter, int limit);
+}
@@ -0,0 +1,37 @@
+package com.loop.api.modules.user.repository;
+
+import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class UserResponseQueriesImpl implements UserResponseQueries {
+
+	private final EntityManager entityManager;
+
+	UserResponseQueriesImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public List<UserResponse> findResponses(Specification<User> filter, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+		Root<User> user = query.from(User.class);
+		query.select(cb.construct(UserResponse.class,
+				user.get("id"), user.get("email"), user.get("mobile"), user.get("username"), user.get("admin"),
+				user.get("profileUrl")));
+		Predicate predicate = filter.toPredicate(user, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(cb.asc(user.get("id")));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+}
@@ -0,0 +1,42 @@
+package com.loop.api.modules.user.repository;
+
+import com.loop.api.modules.user.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for listing users. Each returns null when its argument is null, so only the filters that were actually
+ * requested reach the SQL and the planner can pick the matching index.
+ */
+public final class UserSpecifications {
+
+	private UserSpecifications() {
+	}
+
+	public static Specification<User> idAfter(Long id) {
+		return id == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+	}
+
+	public static Specification<User> verified(Boolean verified) {
+		return verified == null ? null : (root, query, cb) -> cb.equal(root.get("verified"), verified);
+	}
+
+	public static Specification<User> admin(Boolean admin) {
+		return admin == null ? null : (root, query, cb) -> cb.equal(root.get("admin"), admin);
+	}
+
+	public static Specification<User> emailStartsWith(String prefix) {
+		return startsWith("email", prefix);
+	}
+
+	public static Specification<User> usernameStartsWith(String prefix) {
+		return startsWith("username", prefix);
+	}
+
+	private static Specification<User> startsWith(String attribute, String prefix) {
+		if (prefix == null) {
+			return null;
+		}
+		String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+		return (root, query, cb) -> cb.like(root.get(attribute), pattern, '\\');
+	}
+}
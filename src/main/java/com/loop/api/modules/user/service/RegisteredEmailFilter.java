@@ -0,0 +1,196 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.common.cache.RedisCacheEvictionChannel;
+import com.loop.api.common.util.CountingBloomFilter;
+import com.loop.api.modules.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Remembers which email addresses are registered in a {@link CountingBloomFilter}, so that checking an address that
+ * is free, the common case while someone types into the signup form, needs no database query. A possible match is
+ * still confirmed against the database.
+ * <p>
+ * The filter is built by streaming the users table once the initial delay after startup has passed, and again every
+ * rebuild interval, which also resizes it as the table grows. Signups, email changes and deletions update it after
+ * their transaction commits. Additions are also broadcast over the cache eviction channel and applied by every other
+ * node, so an address registered elsewhere is known here as soon as the message arrives; without Redis there is a
+ * single node and nothing to broadcast. A message lost while Redis is unreachable is made up by the next rebuild. Removals stay local, since taking an address out of a filter that never counted it could hide
+ * another address; a node that missed one only pays a database check until its next rebuild. Until the first build
+ * completes every check goes to the database.
+ * <p>
+ * Meters: {@code email.filter.checks}, tagged {@code result} as {@code absent} (answered by the filter),
+ * {@code present}, {@code false_positive} or {@code unavailable}; {@code email.filter.false_positive_probability},
+ * estimated from how full the filter is; and {@code email.filter.rebuild}.
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter {
+
+	static final String CHANNEL_NAME = "registered-emails";
+
+	private final UserRepository userRepository;
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final long minimumCapacity;
+	private final double falsePositiveProbability;
+	private final Counter absent;
+	private final Counter present;
+	private final Counter falsePositive;
+	private final Counter unavailable;
+	@Nullable
+	private final RedisCacheEvictionChannel channel;
+
+	@Nullable
+	private volatile CountingBloomFilter current;
+	// Set while a rebuild streams the table, so that concurrent signups reach the filter that replaces current
+	@Nullable
+	private volatile CountingBloomFilter rebuilding;
+
+	public RegisteredEmailFilter(UserRepository userRepository,
+								 MeterRegistry meterRegistry,
+								 @Value("${app.auth.email-filter.enabled:true}") boolean enabled,
+								 @Value("${app.auth.email-filter.minimum-capacity:100000}") long minimumCapacity,
+								 @Value("${app.auth.email-filter.false-positive-probability:0.01}")
+								 double falsePositiveProbability,
+								 ObjectProvider<RedisCacheEvictionChannel> channel) {
+		this.userRepository = userRepository;
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.minimumCapacity = minimumCapacity;
+		this.falsePositiveProbability = falsePositiveProbability;
+		this.absent = checks("absent");
+		this.present = checks("present");
+		this.falsePositive = checks("false_positive");
+		this.unavailable = checks("unavailable");
+		this.channel = channel.getIfAvailable();
+		if (this.channel != null) {
+			this.channel.onMessage(CHANNEL_NAME, this::addNow);
+		}
+
+		Gauge.builder("email.filter.false_positive_probability", this, RegisteredEmailFilter::falsePositiveProbability)
+				.description("Estimated chance that a free email has to be checked in the database")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Whether {@code email} is registered. {@code database} is only asked when the filter cannot rule it out.
+	 */
+	public boolean isRegistered(String email, Predicate<String> database) {
+		CountingBloomFilter filter = current;
+		if (filter == null) {
+			unavailable.increment();
+			return database.test(email);
+		}
+		if (!filter.mightContain(normalize(email))) {
+			absent.increment();
+			return false;
+		}
+		boolean registered = database.test(email);
+		(registered ? present : falsePositive).increment();
+		return registered;
+	}
+
+	/**
+	 * Adds a newly registered or changed email, here and on every other node, once the current transaction commits.
+	 */
+	public void add(String email) {
+		String key = normalize(email);
+		afterCommit(() -> {
+			addNow(key);
+			if (channel != null) {
+				channel.publish(CHANNEL_NAME, key);
+			}
+		});
+	}
+
+	/**
+	 * Removes a deleted or replaced email once the current transaction commits. Only the filter that held the email
+	 * when this was called is touched, since a filter built afterwards may never have counted it.
+	 */
+	public void remove(String email) {
+		String key = normalize(email);
+		CountingBloomFilter filter = current;
+		if (filter != null) {
+			afterCommit(() -> filter.remove(key));
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.auth.email-filter.rebuild-interval:15m}",
+			initialDelayString = "${app.auth.email-filter.initial-delay:30s}")
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		Timer.Sample sample = Timer.start(meterRegistry);
+		long users = userRepository.count();
+		CountingBloomFilter next = CountingBloomFilter.create(
+				Math.max(minimumCapacity, users + users / 2), falsePositiveProbability);
+		rebuilding = next;
+		long added = 0;
+		try (Stream<String> emails = userRepository.streamEmails()) {
+			for (String email : (Iterable<String>) emails::iterator) {
+				next.add(normalize(email));
+				added++;
+			}
+			current = next;
+		} finally {
+			rebuilding = null;
+			sample.stop(Timer.builder("email.filter.rebuild").register(meterRegistry));
+		}
+		log.info("Rebuilt registered email filter with {} emails in {} KB", added, next.sizeInBytes() / 1024);
+	}
+
+	private void addNow(String key) {
+		CountingBloomFilter filter = current;
+		CountingBloomFilter next = rebuilding;
+		if (filter != null) {
+			filter.add(key);
+		}
+		if (next != null && next != filter) {
+			next.add(key);
+		}
+	}
+
+	private double falsePositiveProbability() {
+		CountingBloomFilter filter = current;
+		return filter == null ? Double.NaN : filter.expectedFalsePositiveProbability();
+	}
+
+	private Counter checks(String result) {
+		return Counter.builder("email.filter.checks").tag("result", result).register(meterRegistry);
+	}
+
+	private static String normalize(String email) {
+		return email.toLowerCase(Locale.ROOT);
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,51 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.common.constants.CacheNames;
+import com.loop.api.modules.user.dto.UserAccount;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-through lookups of user accounts for authenticating requests, and eviction of every cached view of a user.
+ * <p>
+ * Only immutable {@link UserAccount}s are cached, never entities or password hashes; logins read the hash from the
+ * database. Write paths call {@link #evict(User)} before changing a user.
+ */
+@Service
+public class UserCacheService {
+
+	private final UserRepository userRepository;
+	private final Cache users;
+	private final Cache accounts;
+
+	public UserCacheService(UserRepository userRepository, CacheManager cacheManager) {
+		this.userRepository = userRepository;
+		this.users = Objects.requireNonNull(cacheManager.getCache(CacheNames.USERS));
+		this.accounts = Objects.requireNonNull(cacheManager.getCache(CacheNames.USER_ACCOUNTS));
+	}
+
+	public Optional<UserAccount> findById(Long id) {
+		UserAccount cached = accounts.get(id, UserAccount.class);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+
+		Optional<UserAccount> account = userRepository.findById(id).map(UserAccount::from);
+		account.ifPresent(a -> accounts.put(id, a));
+		return account;
+	}
+
+	/**
+	 * Evicts every cached view of the user; inside a transaction the eviction happens after commit.
+	 */
+	public void evict(User user) {
+		users.evict(user.getId());
+		accounts.evict(user.getId());
+	}
+}
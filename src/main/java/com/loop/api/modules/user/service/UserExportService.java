@@ -0,0 +1,141 @@
+package com.loop.api.modules.user.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole users table to a stream, one row at a time, so memory use does not grow with the table. Rows
+ * come from a server-side cursor as DTOs, so the persistence context stays empty.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+	public enum Format {
+		NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+		CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+		private final MediaType mediaType;
+		private final String extension;
+
+		Format(MediaType mediaType, String extension) {
+			this.mediaType = mediaType;
+			this.extension = extension;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+		public static Format fromParameter(String value) {
+			for (Format format : values()) {
+				if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+					return format;
+				}
+			}
+			throw new IllegalArgumentException("Unsupported export format: " + value);
+		}
+	}
+
+	private static final String CSV_HEADER = "id,email,mobile,username,admin,profileUrl";
+	// Rows are pushed to the client in batches rather than held until the end
+	private static final int FLUSH_EVERY = 1000;
+	private static final Pattern PLAIN_NUMBER = Pattern.compile("[+-]?[0-9]+");
+
+	private final UserRepository userRepository;
+	private final ObjectWriter jsonWriter;
+
+	public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+		this.userRepository = userRepository;
+		// Each row gets its own generator, which would otherwise flush the writer, and the response, on every row
+		this.jsonWriter = objectMapper.writerFor(UserResponse.class)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+	}
+
+	/**
+	 * Writes every user to {@code out} in ID order and returns the number of rows written. {@code out} is flushed
+	 * but not closed.
+	 */
+	@Transactional(readOnly = true)
+	public long export(Format format, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		if (format == Format.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+
+		long rows = 0;
+		try (Stream<UserResponse> users = userRepository.streamResponsesOrderedById()) {
+			Iterator<UserResponse> iterator = users.iterator();
+			while (iterator.hasNext()) {
+				UserResponse response = iterator.next();
+				if (format == Format.CSV) {
+					writeCsv(writer, response);
+				} else {
+					jsonWriter.writeValue(writer, response);
+					writer.write('\n');
+				}
+				if (++rows % FLUSH_EVERY == 0) {
+					writer.flush();
+				}
+			}
+		}
+		writer.flush();
+		log.info("Exported {} users as {}", rows, format);
+		return rows;
+	}
+
+	private static void writeCsv(Writer writer, UserResponse user) throws IOException {
+		writer.write(String.valueOf(user.getId()));
+		writer.write(',');
+		writer.write(csvCell(user.getEmail()));
+		writer.write(',');
+		writer.write(csvCell(user.getMobile()));
+		writer.write(',');
+		writer.write(csvCell(user.getUsername()));
+		writer.write(',');
+		writer.write(String.valueOf(user.isAdmin()));
+		writer.write(',');
+		writer.write(csvCell(user.getProfileUrl()));
+		writer.write('\n');
+	}
+
+	// RFC 4180 quoting. Values a spreadsheet would run as a formula get a leading quote so they show as text;
+	// numbers such as +15551234567 are left alone
+	static String csvCell(String value) {
+		if (value == null || value.isEmpty()) {
+			return "";
+		}
+		if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0 && !PLAIN_NUMBER.matcher(value).matches()) {
+			value = "'" + value;
+		}
+		if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+				|| value.indexOf('\r') >= 0) {
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+		return value;
+	}
+}
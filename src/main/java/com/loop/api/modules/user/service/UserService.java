@@ -1,12 +1,20 @@
 package com.loop.api.modules.user.service;
 
+import com.loop.api.common.constants.CacheNames;
 import com.loop.api.common.exception.UserNotFoundException;
 import com.loop.api.common.util.UserValidationUtil;
 import com.loop.api.modules.user.dto.UpdateUserProfileRequest;
+import com.loop.api.modules.user.dto.UserListRequest;
+import com.loop.api.modules.user.dto.UserPageResponse;
 import com.loop.api.modules.user.dto.UserResponse;
 import com.loop.api.modules.user.mapper.UserMapper;
 import com.loop.api.modules.user.model.User;
 import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.modules.user.repository.UserSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,20 +26,53 @@ public class UserService {
 
 	private final UserRepository userRepository;
 	private final UserMapper userMapper;
+	private final UserCacheService userCacheService;
+	private final RegisteredEmailFilter registeredEmailFilter;
 
-	public UserService(UserRepository userRepository, UserMapper userMapper) {
+	@Value("${app.admin.users.default-page-size:50}")
+	private int defaultPageSize;
+
+	@Value("${app.admin.users.max-page-size:200}")
+	private int maxPageSize;
+
+	public UserService(UserRepository userRepository, UserMapper userMapper, UserCacheService userCacheService,
+					   RegisteredEmailFilter registeredEmailFilter) {
 		this.userRepository = userRepository;
 		this.userMapper = userMapper;
+		this.userCacheService = userCacheService;
+		this.registeredEmailFilter = registeredEmailFilter;
 	}
 
-	public List<UserResponse> getAllUsers() {
-		List<User> users = userRepository.findAll();
-		return userMapper.toUserResponseList(users);
+	/**
+	 * Returns the page of users after {@code cursor} in ID order. Seeking past the last seen ID costs the same at
+	 * any depth, unlike an offset. One extra row is fetched to tell whether another page follows. Rows are read
+	 * straight into {@link UserResponse}, without loading entities.
+	 */
+	@Transactional(readOnly = true)
+	public UserPageResponse listUsers(UserListRequest request) {
+		int limit = Math.min(request.getLimit() != null ? request.getLimit() : defaultPageSize, maxPageSize);
+		Specification<User> filter = Specification.allOf(
+				UserSpecifications.idAfter(request.getCursor()),
+				UserSpecifications.verified(request.getVerified()),
+				UserSpecifications.admin(request.getAdmin()),
+				UserSpecifications.emailStartsWith(request.getEmailPrefix()),
+				UserSpecifications.usernameStartsWith(request.getUsernamePrefix()));
+
+		List<UserResponse> users = userRepository.findResponses(filter, limit + 1);
+
+		Long nextCursor = null;
+		if (users.size() > limit) {
+			users = users.subList(0, limit);
+			nextCursor = users.get(limit - 1).getId();
+		}
+		return new UserPageResponse(users, nextCursor);
 	}
 
+	@Cacheable(cacheNames = CacheNames.USERS, key = "#id")
+	@Transactional(readOnly = true)
 	public UserResponse getUserById(Long id) {
-		User user = getUserEntityById(id);
-		return userMapper.toUserResponse(user);
+		return userRepository.findResponseById(id)
+				.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
 	}
 
 	public User getUserEntityById(Long id) {
@@ -50,8 +91,13 @@ public class UserService {
 				id
 		);
 
-		if (profileRequest.getEmail() != null)
+		userCacheService.evict(existingUser);
+
+		if (profileRequest.getEmail() != null && !profileRequest.getEmail().equals(existingUser.getEmail())) {
+			registeredEmailFilter.remove(existingUser.getEmail());
+			registeredEmailFilter.add(profileRequest.getEmail());
 			existingUser.setEmail(profileRequest.getEmail());
+		}
 		if (profileRequest.getMobile() != null)
 			existingUser.setMobile(profileRequest.getMobile());
 		if (profileRequest.getUsername() != null)
@@ -59,11 +105,19 @@ public class UserService {
 		if (profileRequest.getProfileUrl() != null)
 			existingUser.setProfileUrl(profileRequest.getProfileUrl());
 
-		return userMapper.toUserResponse(userRepository.save(existingUser));
+		try {
+			// Flushed here so a unique violation from a concurrent write surfaces as a conflict, not at commit
+			return userMapper.toUserResponse(userRepository.saveAndFlush(existingUser));
+		} catch (DataIntegrityViolationException e) {
+			throw UserValidationUtil.translateUniqueViolation(e, profileRequest.getEmail(),
+					profileRequest.getUsername(), profileRequest.getMobile());
+		}
 	}
 
 	public void deleteUser(Long id) {
 		User user = getUserEntityById(id);
+		userCacheService.evict(user);
+		registeredEmailFilter.remove(user.getEmail());
 		userRepository.delete(user);
 	}
 }
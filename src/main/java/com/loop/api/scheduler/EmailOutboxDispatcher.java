@@ -0,0 +1,102 @@
+package com.loop.api.scheduler;
+
+import com.loop.api.modules.auth.model.OutboxEmail;
+import com.loop.api.modules.auth.service.EmailOutboxService;
+import com.loop.api.modules.auth.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Delivers emails from the outbox. Every node polls; claiming with {@code SKIP LOCKED} keeps them from sending
+ * the same email, so no scheduler lock is needed. Delivery is at least once. Each claimed batch is sent in parallel
+ * on the {@code emailExecutor}.
+ * <p>
+ * Meters: {@code email.outbox.depth} (pending emails), {@code email.outbox.dead_letters} (emails given up on and
+ * not yet purged by {@link TokenCleanupJob}), {@code email.outbox.send} (tagged {@code type} and {@code outcome}) and
+ * {@code email.outbox.failed} (emails given up on, tagged {@code type}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.email.outbox.dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+	private final EmailOutboxService emailOutboxService;
+	private final EmailService emailService;
+	private final Executor emailExecutor;
+	private final MeterRegistry meterRegistry;
+	private final int batchSize;
+
+	public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+								 EmailService emailService,
+								 @Qualifier("emailExecutor") Executor emailExecutor,
+								 MeterRegistry meterRegistry,
+								 @Value("${app.email.outbox.batch-size:50}") int batchSize) {
+		this.emailOutboxService = emailOutboxService;
+		this.emailService = emailService;
+		this.emailExecutor = emailExecutor;
+		this.meterRegistry = meterRegistry;
+		this.batchSize = batchSize;
+
+		Gauge.builder("email.outbox.depth", emailOutboxService, EmailOutboxService::countPending)
+				.description("Emails waiting in the outbox")
+				.register(meterRegistry);
+		Gauge.builder("email.outbox.dead_letters", emailOutboxService, EmailOutboxService::countFailed)
+				.description("Emails given up on and still kept in the outbox")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:1s}",
+			initialDelayString = "${app.email.outbox.poll-interval:1s}")
+	public void dispatch() {
+		List<OutboxEmail> batch;
+		do {
+			batch = emailOutboxService.claimDue(batchSize);
+			CompletableFuture.allOf(batch.stream()
+					.map(email -> CompletableFuture.runAsync(() -> send(email), emailExecutor))
+					.toArray(CompletableFuture[]::new)).join();
+		} while (batch.size() == batchSize);
+	}
+
+	private void send(OutboxEmail email) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "success";
+		try {
+			String secret = emailOutboxService.secretOf(email);
+			switch (email.getType()) {
+				case VERIFICATION -> emailService.sendVerificationEmail(email.getRecipient(),
+						email.getRecipientName(), secret);
+				case PASSWORD_RESET -> emailService.sendResetPasswordEmail(email.getRecipient(),
+						email.getRecipientName(), secret);
+			}
+			emailOutboxService.markSent(email.getId());
+		} catch (Exception e) {
+			outcome = "failure";
+			if (emailOutboxService.markFailed(email.getId(), e.getMessage())) {
+				Counter.builder("email.outbox.failed").tag("type", email.getType().name())
+						.register(meterRegistry).increment();
+				log.error("❌ Giving up on {} email {} after {} attempts", email.getType(), email.getId(),
+						email.getAttempts(), e);
+			} else {
+				log.warn("Attempt {} to send {} email {} failed: {}", email.getAttempts(), email.getType(),
+						email.getId(), e.getMessage());
+			}
+		} finally {
+			sample.stop(Timer.builder("email.outbox.send")
+					.tag("type", email.getType().name())
+					.tag("outcome", outcome)
+					.register(meterRegistry));
+		}
+	}
+}
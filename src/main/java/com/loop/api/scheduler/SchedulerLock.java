@@ -0,0 +1,160 @@
+package com.loop.api.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide lock for scheduled jobs, so that each run happens on one node only.
+ * <p>
+ * A lock is a leased row in {@code scheduler_locks}. A node takes the row when its lease has run out and,
+ * when the job is done, shortens the lease to {@code min-hold} after the start so that nodes whose trigger
+ * fires a little later skip the same run. If a node dies, its lease expires after {@code lease} and
+ * another node can take over.
+ * <p>
+ * A job that may outlast the lease runs through {@link #runExclusivelyWithLease} and renews the lease as it goes;
+ * once a renewal fails, another node may hold the lock and the job must stop.
+ */
+@Slf4j
+@Component
+public class SchedulerLock {
+
+	private static final String UPDATE_EXPIRED = "UPDATE scheduler_locks SET locked_by = ?, locked_at = ?, " +
+			"lock_until = ? WHERE name = ? AND lock_until <= ?";
+	private static final String INSERT = "INSERT INTO scheduler_locks (name, locked_by, locked_at, lock_until) " +
+			"VALUES (?, ?, ?, ?)";
+	private static final String RENEW = "UPDATE scheduler_locks SET lock_until = ? WHERE name = ? AND locked_by = ? " +
+			"AND locked_at = ?";
+	private static final String RELEASE = "UPDATE scheduler_locks SET lock_until = ? WHERE name = ? AND locked_by = ?";
+	private static final String SELECT_ALL = "SELECT name, locked_by, locked_at, lock_until FROM scheduler_locks " +
+			"ORDER BY name";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String nodeId;
+	private final Duration lease;
+	private final Duration minHold;
+
+	public SchedulerLock(JdbcTemplate jdbcTemplate,
+						 @Value("${app.scheduler.node-id:}") String nodeId,
+						 @Value("${app.scheduler.lock.lease:30m}") Duration lease,
+						 @Value("${app.scheduler.lock.min-hold:1m}") Duration minHold) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.nodeId = StringUtils.hasText(nodeId) ? nodeId : defaultNodeId();
+		this.lease = lease;
+		this.minHold = minHold;
+	}
+
+	/**
+	 * Runs the task if this node can take the named lock.
+	 *
+	 * @return whether the task ran
+	 */
+	public boolean runExclusively(String name, Runnable task) {
+		return runExclusivelyWithLease(name, lease -> task.run());
+	}
+
+	/**
+	 * Runs the task if this node can take the named lock, handing it the {@link Lease} to renew while it works.
+	 *
+	 * @return whether the task ran
+	 */
+	public boolean runExclusivelyWithLease(String name, Consumer<Lease> task) {
+		// Truncated so that the value read back from the database matches it exactly when renewing
+		Instant lockedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		if (!tryAcquire(name, lockedAt)) {
+			log.debug("Skipping scheduled job '{}': locked by another node", name);
+			return false;
+		}
+		try {
+			task.accept(() -> renew(name, lockedAt));
+			return true;
+		} finally {
+			release(name, lockedAt);
+		}
+	}
+
+	public List<LockInfo> findAll() {
+		return jdbcTemplate.query(SELECT_ALL, (rs, rowNum) -> new LockInfo(
+				rs.getString("name"),
+				rs.getString("locked_by"),
+				rs.getObject("locked_at", OffsetDateTime.class).toInstant(),
+				rs.getObject("lock_until", OffsetDateTime.class).toInstant()));
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	private boolean tryAcquire(String name, Instant now) {
+		OffsetDateTime lockedAt = utc(now);
+		OffsetDateTime lockUntil = utc(now.plus(lease));
+		if (jdbcTemplate.update(UPDATE_EXPIRED, nodeId, lockedAt, lockUntil, name, lockedAt) > 0) {
+			return true;
+		}
+		try {
+			return jdbcTemplate.update(INSERT, name, nodeId, lockedAt, lockUntil) > 0;
+		} catch (DuplicateKeyException e) {
+			return false;
+		}
+	}
+
+	private boolean renew(String name, Instant lockedAt) {
+		// Matching locked_at as well means a takeover, even by this same node, ends the lease for good
+		if (jdbcTemplate.update(RENEW, utc(Instant.now().plus(lease)), name, nodeId, utc(lockedAt)) > 0) {
+			return true;
+		}
+		log.warn("Lost the lock for scheduled job '{}' to another node", name);
+		return false;
+	}
+
+	private void release(String name, Instant lockedAt) {
+		Instant earliest = lockedAt.plus(minHold);
+		Instant now = Instant.now();
+		jdbcTemplate.update(RELEASE, utc(now.isAfter(earliest) ? now : earliest), name, nodeId);
+	}
+
+	private static OffsetDateTime utc(Instant instant) {
+		return instant.atOffset(ZoneOffset.UTC);
+	}
+
+	private static String defaultNodeId() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			host = "unknown";
+		}
+		return host + ":" + ManagementFactory.getRuntimeMXBean().getPid();
+	}
+
+	/**
+	 * The lease on a lock held by a running task.
+	 */
+	@FunctionalInterface
+	public interface Lease {
+
+		/**
+		 * Extends the lease by another full lease period from now.
+		 *
+		 * @return false if the lock was taken over by another run, which the task should take as a signal to stop
+		 */
+		boolean renew();
+	}
+
+	public record LockInfo(String name, String lockedBy, Instant lockedAt, Instant lockUntil) {
+	}
+}
@@ -0,0 +1,41 @@
+package com.loop.api.scheduler;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The {@code schedulerlocks} actuator endpoint: which node holds, or last held, each scheduled job's lock.
+ * <p>
+ * Lock holders are host names and process ids, and {@code /actuator} is not authenticated, so the endpoint is left out
+ * of the web exposure and is read over JMX ({@code spring.jmx.enabled=true}).
+ */
+@Component
+@Endpoint(id = "schedulerlocks")
+public class SchedulerLocksEndpoint {
+
+	private final SchedulerLock schedulerLock;
+
+	public SchedulerLocksEndpoint(SchedulerLock schedulerLock) {
+		this.schedulerLock = schedulerLock;
+	}
+
+	@ReadOperation
+	public SchedulerLocksDescriptor locks() {
+		Instant now = Instant.now();
+		List<LockDescriptor> locks = schedulerLock.findAll().stream()
+				.map(lock -> new LockDescriptor(lock.name(), lock.lockedBy(), lock.lockedAt(), lock.lockUntil(),
+						lock.lockUntil().isAfter(now)))
+				.toList();
+		return new SchedulerLocksDescriptor(schedulerLock.getNodeId(), locks);
+	}
+
+	public record SchedulerLocksDescriptor(String node, List<LockDescriptor> locks) {
+	}
+
+	public record LockDescriptor(String name, String lockedBy, Instant lockedAt, Instant lockUntil, boolean held) {
+	}
+}
@@ -1,40 +1,157 @@
 package com.loop.api.scheduler;
 
+import com.loop.api.modules.auth.repository.OutboxEmailRepository;
 import com.loop.api.modules.auth.repository.PasswordResetCodeRepository;
-import com.loop.api.modules.auth.repository.RefreshTokenRepository;
+import com.loop.api.modules.auth.repository.RefreshTokenPartitions;
+import com.loop.api.modules.auth.repository.RefreshTokenStore;
 import com.loop.api.modules.auth.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.function.BiFunction;
 
+/**
+ * Removes expired tokens in small chunks, each in its own transaction, pausing between chunks so that a large
+ * backlog never holds long locks or produces a burst of WAL. Jobs run hourly at staggered minutes by default,
+ * each on a single node of the cluster through {@link SchedulerLock}; the lock's lease is renewed before every chunk
+ * and the run stops if it was lost. Where {@code refresh_tokens} is partitioned,
+ * a daily job also creates future partitions and drops fully expired ones, and the hourly job only deletes from the
+ * default partition. Outbox emails that were given up on are purged the same way once {@code failed-retention} has
+ * passed since they were created.
+ * <p>
+ * Meters, tagged by {@code job}: {@code token.cleanup.deleted}, {@code token.cleanup.chunks},
+ * {@code token.cleanup.duration}, {@code token.cleanup.partitions.created} and
+ * {@code token.cleanup.partitions.dropped}.
+ */
+@Slf4j
 @Component
 public class TokenCleanupJob {
 
-	private final RefreshTokenRepository refreshTokenRepository;
+	static final String REFRESH_TOKENS = "refreshTokens";
+	static final String VERIFICATION_TOKENS = "verificationTokens";
+	static final String PASSWORD_RESET_CODES = "passwordResetCodes";
+	static final String REFRESH_TOKEN_PARTITIONS = "refreshTokenPartitions";
+	static final String FAILED_EMAILS = "failedEmails";
+
+	private final RefreshTokenStore refreshTokenStore;
+	private final RefreshTokenPartitions refreshTokenPartitions;
 	private final VerificationTokenRepository verificationTokenRepository;
 	private final PasswordResetCodeRepository passwordResetCodeRepository;
+	private final OutboxEmailRepository outboxEmailRepository;
+	private final SchedulerLock schedulerLock;
+	private final MeterRegistry meterRegistry;
+	private final int chunkSize;
+	private final Duration pause;
+	private final Duration failedEmailRetention;
 
-	public TokenCleanupJob(RefreshTokenRepository refreshTokenRepository,
+	public TokenCleanupJob(RefreshTokenStore refreshTokenStore,
+						   RefreshTokenPartitions refreshTokenPartitions,
 						   VerificationTokenRepository verificationTokenRepository,
-						   PasswordResetCodeRepository passwordResetCodeRepository) {
-		this.refreshTokenRepository = refreshTokenRepository;
+						   PasswordResetCodeRepository passwordResetCodeRepository,
+						   OutboxEmailRepository outboxEmailRepository,
+						   SchedulerLock schedulerLock,
+						   MeterRegistry meterRegistry,
+						   @Value("${app.cleanup.chunk-size:1000}") int chunkSize,
+						   @Value("${app.cleanup.pause:200ms}") Duration pause,
+						   @Value("${app.cleanup.failed-emails.retention:7d}") Duration failedEmailRetention) {
+		this.refreshTokenStore = refreshTokenStore;
+		this.refreshTokenPartitions = refreshTokenPartitions;
 		this.verificationTokenRepository = verificationTokenRepository;
 		this.passwordResetCodeRepository = passwordResetCodeRepository;
+		this.outboxEmailRepository = outboxEmailRepository;
+		this.schedulerLock = schedulerLock;
+		this.meterRegistry = meterRegistry;
+		this.chunkSize = chunkSize;
+		this.pause = pause;
+		this.failedEmailRetention = failedEmailRetention;
 	}
 
-	@Scheduled(cron = "0 0 2 * * ?", zone = "UTC") // Every day at 2 AM
+	@Scheduled(cron = "${app.cleanup.refresh-tokens-cron:0 5 * * * ?}", zone = "UTC")
 	public void cleanExpiredRefreshTokens() {
-		refreshTokenRepository.deleteAllByExpiryDateBefore(Instant.now());
+		// Partitioned, expired rows leave with their daily partition; only the default partition needs row deletes
+		deleteInChunks(REFRESH_TOKENS, refreshTokenPartitions.isPartitioned()
+				? refreshTokenPartitions::deleteExpiredFromDefault
+				: refreshTokenStore::deleteExpired);
 	}
 
-	@Scheduled(cron = "0 0 2 * * ?", zone = "UTC")
+	@Scheduled(cron = "${app.cleanup.verification-tokens-cron:0 25 * * * ?}", zone = "UTC")
 	public void cleanExpiredVerificationTokens() {
-		verificationTokenRepository.deleteAllByExpiryDateBefore(Instant.now());
+		deleteInChunks(VERIFICATION_TOKENS, verificationTokenRepository::deleteExpiredChunk);
 	}
 
-	@Scheduled(cron = "0 0 2 * * ?", zone = "UTC")
+	@Scheduled(cron = "${app.cleanup.password-reset-codes-cron:0 45 * * * ?}", zone = "UTC")
 	public void cleanExpiredPasswordResetCodes() {
-		passwordResetCodeRepository.deleteAllByExpiryDateBefore(Instant.now());
+		deleteInChunks(PASSWORD_RESET_CODES, passwordResetCodeRepository::deleteExpiredChunk);
+	}
+
+	@Scheduled(cron = "${app.cleanup.failed-emails-cron:0 35 * * * ?}", zone = "UTC")
+	public void purgeFailedEmails() {
+		deleteInChunks(FAILED_EMAILS, (now, limit) ->
+				outboxEmailRepository.deleteFailedChunk(now.minus(failedEmailRetention), limit));
+	}
+
+	@Scheduled(cron = "${app.cleanup.refresh-token-partitions-cron:0 15 0 * * ?}", zone = "UTC")
+	public void maintainRefreshTokenPartitions() {
+		if (!refreshTokenPartitions.isPartitioned()) {
+			return;
+		}
+		schedulerLock.runExclusively(REFRESH_TOKEN_PARTITIONS, () -> {
+			LocalDate today = LocalDate.now(ZoneOffset.UTC);
+			int created = refreshTokenPartitions.createAhead(today);
+			// One day of slack absorbs any offset between UTC and the zone expiry_date was written in
+			int dropped = refreshTokenPartitions.dropBefore(today.minusDays(1));
+			Counter.builder("token.cleanup.partitions.created").tag("job", REFRESH_TOKEN_PARTITIONS)
+					.register(meterRegistry).increment(created);
+			Counter.builder("token.cleanup.partitions.dropped").tag("job", REFRESH_TOKEN_PARTITIONS)
+					.register(meterRegistry).increment(dropped);
+			log.info("Refresh token partitions: created {}, dropped {}", created, dropped);
+		});
+	}
+
+	private void deleteInChunks(String job, BiFunction<Instant, Integer, Integer> deleteChunk) {
+		schedulerLock.runExclusivelyWithLease(job, lease -> runChunks(job, lease, deleteChunk));
+	}
+
+	private void runChunks(String job, SchedulerLock.Lease lease, BiFunction<Instant, Integer, Integer> deleteChunk) {
+		Instant cutoff = Instant.now();
+		long start = System.nanoTime();
+		long deleted = 0;
+		int chunks = 0;
+
+		try {
+			while (true) {
+				int rows = deleteChunk.apply(cutoff, chunkSize);
+				deleted += rows;
+				chunks++;
+				if (rows < chunkSize) {
+					break;
+				}
+				Thread.sleep(pause.toMillis());
+				// A backlog can outlast the lease; without a renewal another node would start the same deletes
+				if (!lease.renew()) {
+					log.warn("Token cleanup '{}' stopped after {} chunks: lock lost", job, chunks);
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Token cleanup '{}' interrupted after {} chunks", job, chunks);
+		} finally {
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+			Counter.builder("token.cleanup.deleted").tag("job", job).register(meterRegistry).increment(deleted);
+			Counter.builder("token.cleanup.chunks").tag("job", job).register(meterRegistry).increment(chunks);
+			Timer.builder("token.cleanup.duration").tag("job", job).register(meterRegistry).record(elapsed);
+			log.info("Token cleanup '{}' deleted {} rows in {} chunks ({} ms)", job, deleted, chunks,
+					elapsed.toMillis());
+		}
 	}
-}
\ No newline at end of file
+}
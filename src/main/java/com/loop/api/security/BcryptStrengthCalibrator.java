@@ -0,0 +1,49 @@
+package com.loop.api.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest bcrypt cost whose hash time on this machine stays within a target latency. Each extra cost
+ * step doubles the work, so one measurement at the baseline cost is enough to extrapolate.
+ * <p>
+ * The result never drops below the BCryptPasswordEncoder default, and existing hashes keep verifying because bcrypt
+ * stores the cost inside each hash.
+ */
+@Slf4j
+final class BcryptStrengthCalibrator {
+
+	static final int MIN_STRENGTH = 10;
+	static final int MAX_STRENGTH = 16;
+
+	private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+	private BcryptStrengthCalibrator() {
+	}
+
+	static int calibrate(Duration targetLatency) {
+		BCryptPasswordEncoder baseline = new BCryptPasswordEncoder(MIN_STRENGTH);
+		baseline.encode(SAMPLE_PASSWORD); // warm up
+
+		long start = System.nanoTime();
+		baseline.encode(SAMPLE_PASSWORD);
+		long baselineNanos = Math.max(1, System.nanoTime() - start);
+
+		int strength = strengthFor(baselineNanos, targetLatency.toNanos());
+		log.info("Calibrated bcrypt strength to {} (cost {} took {} ms, target {} ms)", strength, MIN_STRENGTH,
+				baselineNanos / 1_000_000, targetLatency.toMillis());
+		return strength;
+	}
+
+	static int strengthFor(long baselineNanos, long targetNanos) {
+		int strength = MIN_STRENGTH;
+		long estimate = baselineNanos;
+		while (strength < MAX_STRENGTH && estimate * 2 <= targetNanos) {
+			estimate *= 2;
+			strength++;
+		}
+		return strength;
+	}
+}
@@ -0,0 +1,106 @@
+package com.loop.api.security;
+
+import com.loop.api.common.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Runs password hashing and verification on a dedicated, fixed-size pool with a bounded queue so that a burst of
+ * logins or signups cannot occupy every CPU and request thread.
+ * <p>
+ * When the queue is full, or a queued task does not finish within the timeout, callers fail fast with a
+ * {@link ServiceBusyException}, which is returned to the client as 503 with a Retry-After header.
+ * <p>
+ * Meters: {@code executor.*} with {@code name=passwordHashing} (including queue depth),
+ * {@code password.hashing.duration} by operation, and {@code password.hashing.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private static final String BUSY_MESSAGE = "Server is busy, please retry shortly";
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Duration timeout;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Counter rejected;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+								  MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.timeout = timeout;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+				new ThreadPoolExecutor.AbortPolicy());
+
+		new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+		this.encodeTimer = Timer.builder("password.hashing.duration")
+				.tag("operation", "encode")
+				.description("Time spent hashing a password, excluding queueing")
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("password.hashing.duration")
+				.tag("operation", "matches")
+				.description("Time spent verifying a password, excluding queueing")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("password.hashing.rejected")
+				.description("Hashing requests rejected because the queue was full or timed out")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private <T> T submit(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new ServiceBusyException(BUSY_MESSAGE, timeout);
+		}
+
+		try {
+			return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			rejected.increment();
+			throw new ServiceBusyException(BUSY_MESSAGE, timeout);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceBusyException(BUSY_MESSAGE, timeout);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Password hashing failed", e.getCause());
+		}
+	}
+}
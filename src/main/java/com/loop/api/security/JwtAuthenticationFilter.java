@@ -1,8 +1,5 @@
 package com.loop.api.security;
 
-import com.loop.api.common.constants.ApiRoutes;
-import com.loop.api.modules.user.model.User;
-import com.loop.api.modules.user.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
@@ -13,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,14 +20,25 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 	private final JwtTokenProvider jwtTokenProvider;
-	private final UserRepository userRepository;
+	private final UserPrincipalService userPrincipalService;
 	private final AuthenticationEntryPoint unauthorizedHandler;
+	private final boolean statelessPrincipal;
 
-	public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserRepository userRepository,
-								   AuthenticationEntryPoint unauthorizedHandler) {
+	/**
+	 * @param statelessPrincipal when {@code true}, the principal is built from the verified token claims instead of
+	 *                           loading the user row on every request
+	 */
+	public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserPrincipalService userPrincipalService,
+								   AuthenticationEntryPoint unauthorizedHandler, boolean statelessPrincipal) {
 		this.jwtTokenProvider = jwtTokenProvider;
-		this.userRepository = userRepository;
+		this.userPrincipalService = userPrincipalService;
 		this.unauthorizedHandler = unauthorizedHandler;
+		this.statelessPrincipal = statelessPrincipal;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return SecurityConfig.EXCLUDED_PATHS_MATCHER.matches(request);
 	}
 
 	@Override
@@ -37,26 +46,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 									HttpServletResponse response,
 									FilterChain filterChain) throws ServletException, IOException {
 
-		// Check if the request matches any of the excluded paths
-		String requestUri = request.getRequestURI().replace(ApiRoutes.CONTEXT_PATH, "");
-		for (String excludedPath : SecurityConfig.EXCLUDED_PATHS) {
-			if (requestUri.matches(excludedPath.replace("**", ".*"))) {
-				filterChain.doFilter(request, response);
-				return;
-			}
-		}
-
 		String token = resolveToken(request);
 
 		if (token != null) {
 			try {
 				Jws<Claims> claims = jwtTokenProvider.parseToken(token);
-				Long userId = Long.parseLong(jwtTokenProvider.getUserIdFromClaims(claims));
-
-				User user = userRepository.findById(userId)
-						.orElseThrow(() -> new InsufficientAuthenticationException("User not found for token."));
-
-				UserPrincipal userPrincipal = new UserPrincipal(user);
+				UserPrincipal userPrincipal = resolvePrincipal(claims);
 				UsernamePasswordAuthenticationToken authToken =
 						new UsernamePasswordAuthenticationToken(userPrincipal, null,
 								userPrincipal.getAuthorities());
@@ -72,6 +67,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	private UserPrincipal resolvePrincipal(Jws<Claims> claims) {
+		if (statelessPrincipal) {
+			return jwtTokenProvider.getUserPrincipalFromClaims(claims);
+		}
+
+		Long userId = Long.parseLong(jwtTokenProvider.getUserIdFromClaims(claims));
+		try {
+			return userPrincipalService.loadUserById(userId);
+		} catch (UsernameNotFoundException e) {
+			throw new InsufficientAuthenticationException("User not found for token.", e);
+		}
+	}
+
 	private String resolveToken(HttpServletRequest request) {
 		String bearerToken = request.getHeader("Authorization");
 		if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,50 +1,74 @@
 package com.loop.api.security;
 
+import com.loop.api.modules.user.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 @Component
 public class JwtTokenProvider {
 	private final long expirationTime;
 	private final SecretKey key;
+	// Immutable once built, so a single instance is shared by all request threads
+	private final JwtParser parser;
+	private final VerifiedTokenCache verifiedTokenCache;
 
 	@Autowired
 	public JwtTokenProvider(@Value("${jwt.secret}") String secret,
-							@Value("${jwt.accessExpirationMs}") long expirationTime) {
+							@Value("${jwt.accessExpirationMs}") long expirationTime,
+							VerifiedTokenCache verifiedTokenCache) {
 		this.expirationTime = expirationTime;
-		this.key = Keys.hmacShaKeyFor(secret.getBytes());
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+		this.parser = Jwts.parser()
+				.verifyWith(key)
+				.build();
 	}
 
 	public String generateToken(UserPrincipal user) {
+		long now = System.currentTimeMillis();
 		return Jwts.builder()
 				.subject(String.valueOf(user.getId()))
 				.claim("email", user.getEmail())
 				.claim("username", user.getUsername())
 				.claim("profileUrl", user.getProfileUrl())
-				.claim("isAdmin", user.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")))
-				.issuedAt(new Date())
-				.expiration(new Date(System.currentTimeMillis() + expirationTime))
+				.claim("isAdmin", user.isAdmin())
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + expirationTime))
 				.signWith(key)
 				.compact();
 	}
 
 	public Jws<Claims> parseToken(String token) {
-		return Jwts.parser()
-				.verifyWith(key)
-				.build()
-				.parseSignedClaims(token);
+		return verifiedTokenCache.get(token, parser::parseSignedClaims);
 	}
 
 	public String getUserIdFromClaims(Jws<Claims> claims) {
 		return claims.getPayload().getSubject();
 	}
+
+	/**
+	 * Rebuilds the principal from the claims written by {@link #generateToken(UserPrincipal)} without touching the
+	 * database. The resulting principal carries no password hash.
+	 */
+	public UserPrincipal getUserPrincipalFromClaims(Jws<Claims> claims) {
+		Claims payload = claims.getPayload();
+
+		User user = new User();
+		user.setId(Long.parseLong(payload.getSubject()));
+		user.setEmail(payload.get("email", String.class));
+		user.setUsername(payload.get("username", String.class));
+		user.setProfileUrl(payload.get("profileUrl", String.class));
+		user.setAdmin(Boolean.TRUE.equals(payload.get("isAdmin", Boolean.class)));
+		return new UserPrincipal(user);
+	}
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.loop.api.security;
 
-import com.loop.api.modules.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,47 +9,64 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
-	static final String[] EXCLUDED_PATHS = {
-			"/public/**",
-			"images/**",
-			"/auth/**",
+	// Served without passing through the security filter chain at all
+	static final String[] IGNORED_PATHS = {
 			"/docs/**",
 			"/actuator/**"
 	};
+
+	static final String[] EXCLUDED_PATHS = {
+			"/public/**",
+			"/images/**",
+			"/auth/**"
+	};
+
+	// Compiled once and shared by authorizeHttpRequests and JwtAuthenticationFilter
+	static final RequestMatcher EXCLUDED_PATHS_MATCHER = anyOf(EXCLUDED_PATHS);
+
 	private final JwtTokenProvider jwtTokenProvider;
-	private final UserRepository userRepository;
+	private final UserPrincipalService userPrincipalService;
 	private final UnauthorizedHandler unauthorizedHandler;
 	private final ForbiddenHandler accessDeniedHandler;
+	private final boolean statelessPrincipal;
 
 	public SecurityConfig(JwtTokenProvider jwtTokenProvider,
-						  UserRepository userRepository,
+						  UserPrincipalService userPrincipalService,
 						  UnauthorizedHandler unauthorizedHandler,
-						  ForbiddenHandler accessDeniedHandler) {
+						  ForbiddenHandler accessDeniedHandler,
+						  @Value("${app.security.stateless-principal:false}") boolean statelessPrincipal) {
 		this.jwtTokenProvider = jwtTokenProvider;
-		this.userRepository = userRepository;
+		this.userPrincipalService = userPrincipalService;
 		this.unauthorizedHandler = unauthorizedHandler;
 		this.accessDeniedHandler = accessDeniedHandler;
+		this.statelessPrincipal = statelessPrincipal;
 	}
 
 	@Bean
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-		JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtTokenProvider, userRepository,
-				unauthorizedHandler);
+		JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtTokenProvider, userPrincipalService,
+				unauthorizedHandler, statelessPrincipal);
 		http
 				.cors(Customizer.withDefaults())
 				.csrf(AbstractHttpConfigurer::disable)
@@ -57,7 +75,7 @@ public class SecurityConfig {
 						.accessDeniedHandler(accessDeniedHandler)
 				)
 				.authorizeHttpRequests(auth -> auth
-						.requestMatchers(EXCLUDED_PATHS).permitAll()
+						.requestMatchers(EXCLUDED_PATHS_MATCHER).permitAll()
 						.anyRequest().authenticated()
 				)
 				// You can configure JWT filters or any other filters here
@@ -68,8 +86,21 @@ public class SecurityConfig {
 	}
 
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public WebSecurityCustomizer webSecurityCustomizer() {
+		return web -> web.ignoring().requestMatchers(anyOf(IGNORED_PATHS));
+	}
+
+	@Bean
+	public PasswordEncoder passwordEncoder(@Value("${app.security.password-hashing.strength:0}") int strength,
+										   @Value("${app.security.password-hashing.target-latency:250ms}") Duration targetLatency,
+										   @Value("${app.security.password-hashing.threads:0}") int threads,
+										   @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+										   @Value("${app.security.password-hashing.timeout:5s}") Duration timeout,
+										   MeterRegistry meterRegistry) {
+		int bcryptStrength = strength > 0 ? strength : BcryptStrengthCalibrator.calibrate(targetLatency);
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), poolSize, queueCapacity,
+				timeout, meterRegistry);
 	}
 
 	@Bean
@@ -89,4 +120,11 @@ public class SecurityConfig {
 		source.registerCorsConfiguration("/**", configuration);
 		return source;
 	}
+
+	private static RequestMatcher anyOf(String... patterns) {
+		PathPatternRequestMatcher.Builder builder = PathPatternRequestMatcher.withDefaults();
+		return new OrRequestMatcher(Arrays.stream(patterns)
+				.map(builder::matcher)
+				.toArray(RequestMatcher[]::new));
+	}
 }
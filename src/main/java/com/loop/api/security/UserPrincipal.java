@@ -11,6 +11,9 @@ import java.util.List;
 
 public class UserPrincipal implements UserDetails, Principal {
 
+	private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+	private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
 	private final User user;
 
 	public UserPrincipal(User user) {
@@ -35,13 +38,13 @@ public class UserPrincipal implements UserDetails, Principal {
 		return user.getUsername();
 	}
 
+	public boolean isAdmin() {
+		return user.isAdmin();
+	}
+
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		if (user.isAdmin()) {
-			return List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
-		} else {
-			return List.of(new SimpleGrantedAuthority("ROLE_USER"));
-		}
+		return user.isAdmin() ? ADMIN_AUTHORITIES : USER_AUTHORITIES;
 	}
 
 	@Override
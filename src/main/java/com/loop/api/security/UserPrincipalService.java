@@ -1,7 +1,9 @@
 package com.loop.api.security;
 
+import com.loop.api.modules.user.dto.UserAccount;
 import com.loop.api.modules.user.model.User;
 import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.modules.user.service.UserCacheService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,13 +13,16 @@ import org.springframework.stereotype.Service;
 public class UserPrincipalService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
-    public UserPrincipalService(UserRepository userRepository) {
+    public UserPrincipalService(UserRepository userRepository, UserCacheService userCacheService) {
         this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
+        // Logins need the password hash, which is never cached, so they read the user from the database.
         // Check if the identifier contains '@', then treat it as an email.
         User user;
         if (identifier.contains("@")) {
@@ -29,4 +34,11 @@ public class UserPrincipalService implements UserDetailsService {
         }
         return new UserPrincipal(user);
     }
+
+    public UserPrincipal loadUserById(Long id) throws UsernameNotFoundException {
+        User user = userCacheService.findById(id)
+                .map(UserAccount::toUser)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return new UserPrincipal(user);
+    }
 }
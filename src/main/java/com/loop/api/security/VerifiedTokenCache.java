@@ -0,0 +1,103 @@
+package com.loop.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Remembers the claims of access tokens whose signature has already been verified, keyed by the SHA-256 digest of
+ * the compact token so raw tokens are never held in memory. Each entry expires at the token's {@code exp}, so a
+ * cached result is never served for an expired token. Tokens that fail verification are not cached.
+ * <p>
+ * Hits, misses and evictions are published as the standard {@code cache.*} meters with {@code cache=jwtVerifications}.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+	private static final String CACHE_NAME = "jwtVerifications";
+
+	@Nullable
+	private final Cache<String, Jws<Claims>> cache;
+
+	public VerifiedTokenCache(@Value("${jwt.verifiedCacheSize:10000}") long maximumSize) {
+		if (maximumSize > 0) {
+			this.cache = Caffeine.newBuilder()
+					.maximumSize(maximumSize)
+					.expireAfter(new UntilTokenExpiry())
+					.recordStats()
+					.build();
+		} else {
+			this.cache = null;
+		}
+	}
+
+	/**
+	 * Returns the cached claims for the token, or runs {@code verifier} and caches its result.
+	 */
+	public Jws<Claims> get(String token, Function<String, Jws<Claims>> verifier) {
+		if (cache == null) {
+			return verifier.apply(token);
+		}
+		return cache.get(digest(token), key -> verifier.apply(token));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (cache != null) {
+			CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+		}
+	}
+
+	@Nullable
+	Cache<String, Jws<Claims>> getNativeCache() {
+		return cache;
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static final class UntilTokenExpiry implements Expiry<String, Jws<Claims>> {
+
+		@Override
+		public long expireAfterCreate(String key, Jws<Claims> value, long currentTime) {
+			Date expiration = value.getPayload().getExpiration();
+			if (expiration == null) {
+				return 0;
+			}
+			long remainingMs = expiration.getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Jws<Claims> value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(String key, Jws<Claims> value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Turns {@code refresh_tokens} into a table range-partitioned by day of {@code expiry_date}, so that expired
+ * tokens are removed by dropping whole partitions instead of deleting rows. Only live tokens are carried over.
+ * <p>
+ * PostgreSQL only: other databases (H2 in tests) keep the plain table. Unique keys of a partitioned table must
+ * contain the partition key, so the primary key becomes {@code (id, expiry_date)} and the selector index
+ * {@code (selector, expiry_date)}; ids still come from the existing sequence and selectors are random.
+ * <p>
+ * Kept self-contained on purpose: a migration must not change behaviour when application code evolves.
+ */
+public class V11__Partition_refresh_tokens_by_expiry_date extends BaseJavaMigration {
+
+	private static final int DAYS_AHEAD = 30;
+	private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+			return;
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE refresh_tokens RENAME TO refresh_tokens_unpartitioned");
+			statement.execute("""
+					CREATE TABLE refresh_tokens
+					(
+					    id             BIGINT    NOT NULL DEFAULT nextval('refresh_tokens_id_seq'),
+					    selector       BYTEA     NOT NULL,
+					    validator_hash BYTEA     NOT NULL,
+					    expiry_date    TIMESTAMP NOT NULL,
+					    user_id        BIGINT
+					) PARTITION BY RANGE (expiry_date)""");
+			statement.execute("CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT");
+
+			LocalDate from;
+			LocalDate to;
+			try (ResultSet range = statement.executeQuery(
+					"SELECT CAST(LOCALTIMESTAMP AS DATE), CAST(MAX(expiry_date) AS DATE) " +
+							"FROM refresh_tokens_unpartitioned")) {
+				range.next();
+				from = range.getObject(1, LocalDate.class);
+				LocalDate lastExpiry = range.getObject(2, LocalDate.class);
+				to = from.plusDays(DAYS_AHEAD);
+				if (lastExpiry != null && lastExpiry.isAfter(to)) {
+					to = lastExpiry;
+				}
+			}
+			for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+				statement.execute("CREATE TABLE refresh_tokens_p" + day.format(SUFFIX) +
+						" PARTITION OF refresh_tokens FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+			}
+
+			statement.execute("""
+					INSERT INTO refresh_tokens (id, selector, validator_hash, expiry_date, user_id)
+					SELECT id, selector, validator_hash, expiry_date, user_id
+					FROM refresh_tokens_unpartitioned
+					WHERE expiry_date > LOCALTIMESTAMP""");
+
+			statement.execute("ALTER SEQUENCE refresh_tokens_id_seq OWNED BY refresh_tokens.id");
+			statement.execute("DROP TABLE refresh_tokens_unpartitioned");
+
+			statement.execute("ALTER TABLE refresh_tokens ADD PRIMARY KEY (id, expiry_date)");
+			statement.execute("ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_user " +
+					"FOREIGN KEY (user_id) REFERENCES users (id)");
+			statement.execute("CREATE UNIQUE INDEX idx_refresh_tokens_selector " +
+					"ON refresh_tokens (selector, expiry_date)");
+			statement.execute("CREATE INDEX idx_user_id ON refresh_tokens (user_id)");
+			statement.execute("CREATE INDEX idx_expiry_date ON refresh_tokens (expiry_date)");
+		}
+	}
+}
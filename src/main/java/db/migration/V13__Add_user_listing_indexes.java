@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Indexes for the admin user listing, which pages by {@code id} and filters by flag or by email/username prefix.
+ * {@code (flag, id)} serves a flag filter and the keyset order from one index.
+ * <p>
+ * On PostgreSQL, {@code LIKE 'prefix%'} only uses a btree index built with {@code varchar_pattern_ops} unless the
+ * database collation is C, so the prefix filters get their own indexes there; other databases (H2 in tests) match
+ * prefixes with the existing email and username indexes. PostgreSQL indexes are built concurrently so the users
+ * table stays writable, which is why this migration runs outside a transaction.
+ * <p>
+ * Kept self-contained on purpose: a migration must not change behaviour when application code evolves.
+ */
+public class V13__Add_user_listing_indexes extends BaseJavaMigration {
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return false;
+	}
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+		String create = postgres ? "CREATE INDEX CONCURRENTLY IF NOT EXISTS " : "CREATE INDEX IF NOT EXISTS ";
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(create + "idx_user_verified_id ON users (verified, id)");
+			statement.execute(create + "idx_user_admin_id ON users (admin, id)");
+			if (postgres) {
+				statement.execute(create + "idx_user_email_prefix ON users (email varchar_pattern_ops)");
+				statement.execute(create + "idx_user_username_prefix ON users (username varchar_pattern_ops)");
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Derives the selector and validator hash of tokens issued before the selector.validator format, so existing
+ * sessions and verification links keep working: the hash is SHA-256 of the raw token and the selector its first
+ * 12 bytes. Written in Java because the SQL hash functions differ between PostgreSQL and H2.
+ * <p>
+ * Kept self-contained on purpose: a migration must not change behaviour when application code evolves.
+ */
+public class V8__Backfill_token_selector_and_validator_hash extends BaseJavaMigration {
+
+	private static final int SELECTOR_BYTES = 12;
+	private static final int BATCH_SIZE = 1000;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		backfill(connection, "refresh_tokens");
+		backfill(connection, "verification_tokens");
+	}
+
+	private void backfill(Connection connection, String table) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+		try (Statement select = connection.createStatement();
+			 PreparedStatement update = connection.prepareStatement(
+					 "UPDATE " + table + " SET selector = ?, validator_hash = ? WHERE id = ?")) {
+			select.setFetchSize(BATCH_SIZE);
+
+			try (ResultSet rows = select.executeQuery("SELECT id, token FROM " + table)) {
+				int pending = 0;
+				while (rows.next()) {
+					byte[] hash = digest.digest(rows.getString("token").getBytes(StandardCharsets.UTF_8));
+					update.setBytes(1, Arrays.copyOf(hash, SELECTOR_BYTES));
+					update.setBytes(2, hash);
+					update.setLong(3, rows.getLong("id"));
+					update.addBatch();
+
+					if (++pending == BATCH_SIZE) {
+						update.executeBatch();
+						pending = 0;
+					}
+				}
+				if (pending > 0) {
+					update.executeBatch();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,7 @@
+CREATE TABLE scheduler_locks
+(
+    name       VARCHAR(64) PRIMARY KEY,
+    locked_by  VARCHAR(255)             NOT NULL,
+    locked_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    lock_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
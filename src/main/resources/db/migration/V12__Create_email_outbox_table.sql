@@ -0,0 +1,17 @@
+-- Emails are written here in the same transaction as the token they carry and delivered by EmailOutboxDispatcher.
+-- Delivered rows are deleted; rows that run out of attempts stay as FAILED with their secret cleared.
+CREATE TABLE email_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    type            VARCHAR(32)   NOT NULL,
+    recipient       VARCHAR(255)  NOT NULL,
+    recipient_name  VARCHAR(255),
+    secret          VARCHAR(255),
+    status          VARCHAR(16)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    created_at      TIMESTAMP     NOT NULL,
+    last_error      VARCHAR(1000)
+);
+
+CREATE INDEX idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
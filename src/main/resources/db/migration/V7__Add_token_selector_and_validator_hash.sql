@@ -0,0 +1,7 @@
+-- Tokens move to a selector.validator format: a 12-byte selector for lookup and a SHA-256 hash of the validator.
+-- Columns are added nullable here, backfilled from the raw tokens by V8, then tightened by V9.
+ALTER TABLE refresh_tokens ADD COLUMN selector BYTEA;
+ALTER TABLE refresh_tokens ADD COLUMN validator_hash BYTEA;
+
+ALTER TABLE verification_tokens ADD COLUMN selector BYTEA;
+ALTER TABLE verification_tokens ADD COLUMN validator_hash BYTEA;
@@ -0,0 +1,11 @@
+ALTER TABLE refresh_tokens ALTER COLUMN selector SET NOT NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN validator_hash SET NOT NULL;
+CREATE UNIQUE INDEX idx_refresh_tokens_selector ON refresh_tokens (selector);
+DROP INDEX IF EXISTS idx_token;
+ALTER TABLE refresh_tokens DROP COLUMN token;
+
+ALTER TABLE verification_tokens ALTER COLUMN selector SET NOT NULL;
+ALTER TABLE verification_tokens ALTER COLUMN validator_hash SET NOT NULL;
+CREATE UNIQUE INDEX idx_verification_tokens_selector ON verification_tokens (selector);
+DROP INDEX IF EXISTS idx_verification_token;
+ALTER TABLE verification_tokens DROP COLUMN token;
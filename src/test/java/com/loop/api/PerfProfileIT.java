@@ -0,0 +1,65 @@
+package com.loop.api;
+
+import com.loop.api.common.mail.SmtpSink;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@ActiveProfiles("perf")
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+public class PerfProfileIT {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@Autowired
+	private SmtpSink smtpSink;
+
+	@DynamicPropertySource
+	static void sinkPort(DynamicPropertyRegistry registry) throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			int port = socket.getLocalPort();
+			registry.add("app.mail.sink.port", () -> port);
+		}
+	}
+
+	@Test
+	@DisplayName("Should start against H2 with every migration applied and the schema validated")
+	void shouldApplyMigrationsToH2() {
+		assertNotNull(flyway.info().current());
+		assertEquals(0, flyway.info().pending().length);
+	}
+
+	@Test
+	@DisplayName("Should deliver mail to the in-process SMTP sink")
+	void shouldDeliverMailToSink() {
+		long before = smtpSink.getReceived();
+
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom("noreply@example.com");
+		message.setTo("perf@example.com");
+		message.setSubject("Load test");
+		message.setText("Discarded");
+		mailSender.send(message);
+		mailSender.send(message);
+
+		assertEquals(before + 2, smtpSink.getReceived());
+	}
+}
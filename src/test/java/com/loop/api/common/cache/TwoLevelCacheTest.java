@@ -0,0 +1,128 @@
+package com.loop.api.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class TwoLevelCacheTest {
+
+	private ConcurrentMapCache remote;
+	private List<String> published;
+	private TwoLevelCache cache;
+
+	@BeforeEach
+	void setUp() {
+		remote = new ConcurrentMapCache("users");
+		published = new ArrayList<>();
+		cache = new TwoLevelCache("users", Caffeine.newBuilder().recordStats().build(), remote,
+				(cacheName, key) -> published.add(cacheName + ":" + key));
+	}
+
+	@Nested
+	@DisplayName("Reads")
+	class Reads {
+
+		@Test
+		@DisplayName("Should promote a shared-level hit into the local level")
+		void shouldPromoteRemoteHit() {
+			remote.put(1L, "alice");
+
+			Cache.ValueWrapper value = cache.get(1L);
+
+			assertNotNull(value);
+			assertEquals("alice", value.get());
+			assertEquals("alice", cache.getLocalCache().getIfPresent("1"));
+			assertEquals(1, cache.getRemoteHitCount());
+		}
+
+		@Test
+		@DisplayName("Should answer from the local level without consulting the shared level")
+		void shouldServeLocalHit() {
+			cache.put(1L, "alice");
+			remote.clear();
+
+			assertEquals("alice", cache.get(1L, String.class));
+			assertEquals(0, cache.getRemoteHitCount());
+			assertEquals(0, cache.getRemoteMissCount());
+		}
+
+		@Test
+		@DisplayName("Should load once and write through on a miss in both levels")
+		void shouldLoadOnMiss() {
+			String value = cache.get(1L, () -> "loaded");
+
+			assertEquals("loaded", value);
+			assertEquals("loaded", remote.get(1L, String.class));
+			assertEquals("loaded", cache.get(1L, () -> fail("loader should not run on a hit")));
+			assertEquals(1, cache.getRemoteMissCount());
+		}
+
+		@Test
+		@DisplayName("Should treat shared-level failures as misses")
+		void shouldDegradeWhenRemoteFails() {
+			TwoLevelCache degraded = new TwoLevelCache("users", Caffeine.newBuilder().build(),
+					new ConcurrentMapCache("users") {
+						@Override
+						public ValueWrapper get(Object key) {
+							throw new IllegalStateException("redis down");
+						}
+					}, null);
+
+			assertNull(degraded.get(1L));
+			assertEquals("loaded", degraded.get(1L, () -> "loaded"));
+		}
+	}
+
+	@Nested
+	@DisplayName("Evictions")
+	class Evictions {
+
+		@Test
+		@DisplayName("Should evict both levels and broadcast the key")
+		void shouldEvictAndPublish() {
+			cache.put(1L, "alice");
+
+			cache.evict(1L);
+
+			assertNull(cache.get(1L));
+			assertNull(remote.get(1L));
+			assertEquals(List.of("users:1"), published);
+		}
+
+		@Test
+		@DisplayName("Should drop only the local copy for a remote eviction")
+		void shouldEvictLocalOnly() {
+			cache.put(1L, "alice");
+
+			cache.evictLocal("1");
+
+			assertNull(cache.getLocalCache().getIfPresent("1"));
+			assertEquals("alice", remote.get(1L, String.class));
+			assertTrue(published.isEmpty());
+		}
+
+		@Test
+		@DisplayName("Should clear both levels and broadcast a whole-cache eviction")
+		void shouldClear() {
+			cache.put(1L, "alice");
+			cache.put(2L, "bob");
+
+			cache.clear();
+
+			assertEquals(0, cache.getLocalCache().estimatedSize());
+			assertNull(remote.get(2L));
+			assertEquals(List.of("users:null"), published);
+		}
+	}
+}
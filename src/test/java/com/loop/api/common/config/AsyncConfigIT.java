@@ -0,0 +1,64 @@
+package com.loop.api.common.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+public class AsyncConfigIT {
+
+	@Autowired
+	private AsyncProbe asyncProbe;
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	@DisplayName("Should run @Async work on a virtual thread with the caller's security context")
+	void shouldPropagateSecurityContextToVirtualThread() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+
+		AsyncProbe.Result result = asyncProbe.capture().get();
+
+		assertTrue(result.virtual(), "Async task should run on a virtual thread");
+		assertEquals("alice", result.principal());
+	}
+
+	@TestConfiguration
+	static class ProbeConfig {
+		@Bean
+		AsyncProbe asyncProbe() {
+			return new AsyncProbe();
+		}
+	}
+
+	static class AsyncProbe {
+
+		record Result(boolean virtual, String principal) {
+		}
+
+		@Async
+		public CompletableFuture<Result> capture() {
+			Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+			return CompletableFuture.completedFuture(new Result(Thread.currentThread().isVirtual(),
+					authentication != null ? authentication.getName() : null));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.loop.api.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = {"app.async.email.threads=1", "app.async.email.queue-capacity=1"})
+public class AsyncExecutorsIT {
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+	@Autowired
+	@Qualifier("emailExecutor")
+	private ThreadPoolTaskExecutor emailExecutor;
+
+	@Autowired
+	private ThreadPoolTaskScheduler taskScheduler;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Should keep Boot's application executor bounded alongside the workload executors")
+	void shouldBoundApplicationExecutor() {
+		assertEquals(500, applicationTaskExecutor.getQueueCapacity());
+		assertEquals(16, applicationTaskExecutor.getMaxPoolSize());
+	}
+
+	@Test
+	@DisplayName("Should give @Scheduled jobs more than one thread so a long job cannot stall the others")
+	void shouldPoolSchedulerThreads() {
+		assertEquals(4, taskScheduler.getPoolSize());
+	}
+
+	@Test
+	@DisplayName("Should run email work on the caller once the email executor is full, and count it")
+	void shouldFallBackToCallerWhenEmailExecutorIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Runnable blocker = () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		double rejectedBefore = meterRegistry.get("executor.rejected").tag("name", "email").counter().count();
+
+		emailExecutor.execute(blocker);
+		emailExecutor.execute(blocker);
+		AtomicReference<Thread> ranOn = new AtomicReference<>();
+		emailExecutor.execute(() -> ranOn.set(Thread.currentThread()));
+		release.countDown();
+
+		assertSame(Thread.currentThread(), ranOn.get());
+		assertEquals(rejectedBefore + 1,
+				meterRegistry.get("executor.rejected").tag("name", "email").counter().count());
+		assertFalse(meterRegistry.find("executor.queued").gauges().isEmpty());
+	}
+}
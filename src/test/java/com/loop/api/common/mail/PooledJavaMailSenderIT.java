@@ -0,0 +1,140 @@
+package com.loop.api.common.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("IntegrationTest")
+public class PooledJavaMailSenderIT {
+
+	private static final int MESSAGES = 200;
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private PooledJavaMailSender pooled;
+
+	@AfterEach
+	void tearDown() {
+		if (pooled != null) {
+			pooled.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("Should send many messages over a single connection, faster than connecting per message")
+	void shouldReuseConnection() throws Exception {
+		JavaMailSenderImpl plain = configure(new JavaMailSenderImpl());
+		pooled = pooled(4, Duration.ofMinutes(1), 1000);
+
+		double plainRate = sendSequentially(plain);
+		double pooledRate = sendSequentially(pooled);
+		log.info("SMTP throughput: {} msg/s per-send connection, {} msg/s pooled",
+				Math.round(plainRate), Math.round(pooledRate));
+
+		assertEquals(2 * MESSAGES, greenMail.getReceivedMessages().length);
+		assertEquals(1, pooled.getOpenedConnections());
+		assertEquals(1, pooled.getIdleConnections());
+		assertEquals(0, pooled.getActiveConnections());
+	}
+
+	@Test
+	@DisplayName("Should open a new connection after the per-connection message limit")
+	void shouldRecycleAfterMessageLimit() throws Exception {
+		pooled = pooled(4, Duration.ofMinutes(1), 10);
+
+		sendSequentially(pooled);
+
+		assertEquals(MESSAGES / 10, pooled.getOpenedConnections());
+	}
+
+	@Test
+	@DisplayName("Should close connections idle for longer than the limit")
+	void shouldEvictIdleConnections() throws Exception {
+		pooled = pooled(4, Duration.ZERO, 1000);
+
+		pooled.send(message(pooled, 0));
+		pooled.send(message(pooled, 1));
+
+		assertEquals(2, pooled.getOpenedConnections());
+	}
+
+	@Test
+	@DisplayName("Should never hold more connections than the limit")
+	void shouldCapConcurrentConnections() throws Exception {
+		pooled = pooled(2, Duration.ofMinutes(1), 1000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<CompletableFuture<Void>> sends = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				MimeMessage message = message(pooled, i);
+				sends.add(CompletableFuture.runAsync(() -> pooled.send(message), executor));
+			}
+			CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(40, greenMail.getReceivedMessages().length);
+		assertTrue(pooled.getOpenedConnections() <= 2);
+	}
+
+	@Test
+	@DisplayName("Should replace a connection the server has closed")
+	void shouldReplaceBrokenConnection() throws Exception {
+		pooled = pooled(1, Duration.ofMinutes(1), 1000);
+		pooled.send(message(pooled, 0));
+
+		greenMail.reset();
+		pooled.send(message(pooled, 1));
+
+		assertEquals(1, greenMail.getReceivedMessages().length);
+		assertEquals(2, pooled.getOpenedConnections());
+	}
+
+	private double sendSequentially(JavaMailSenderImpl sender) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < MESSAGES; i++) {
+			sender.send(message(sender, i));
+		}
+		return MESSAGES / (Duration.ofNanos(System.nanoTime() - start).toMillis() / 1000.0);
+	}
+
+	private MimeMessage message(JavaMailSenderImpl sender, int i) throws Exception {
+		MimeMessage message = sender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+		helper.setFrom("noreply@loop.test");
+		helper.setTo("user" + i + "@loop.test");
+		helper.setSubject("Message " + i);
+		helper.setText("Hello " + i);
+		return message;
+	}
+
+	private PooledJavaMailSender pooled(int maxConnections, Duration maxIdle, int maxMessages) {
+		return configure(new PooledJavaMailSender(maxConnections, maxIdle, maxMessages, Duration.ofSeconds(10)));
+	}
+
+	private <T extends JavaMailSenderImpl> T configure(T sender) {
+		sender.setHost("localhost");
+		sender.setPort(ServerSetupTest.SMTP.getPort());
+		return sender;
+	}
+}
@@ -0,0 +1,80 @@
+package com.loop.api.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class CountingBloomFilterTest {
+
+	@Test
+	@DisplayName("Should contain every added element")
+	void shouldHaveNoFalseNegatives() {
+		CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+
+		IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+		assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com")));
+	}
+
+	@Test
+	@DisplayName("Should keep false positives near the configured rate when filled to capacity")
+	void shouldKeepFalsePositiveRate() {
+		CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+		IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+		long falsePositives = IntStream.range(0, 100_000)
+				.filter(i -> filter.mightContain("other" + i + "@example.com"))
+				.count();
+
+		assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+		assertEquals(0.01, filter.expectedFalsePositiveProbability(), 0.005);
+	}
+
+	@Test
+	@DisplayName("Should forget a removed element but keep others that share its cells")
+	void shouldRemoveElements() {
+		CountingBloomFilter filter = CountingBloomFilter.create(1_000, 0.01);
+		IntStream.range(0, 1_000).forEach(i -> filter.add("user" + i));
+
+		IntStream.range(0, 500).forEach(i -> filter.remove("user" + i));
+
+		assertTrue(IntStream.range(500, 1_000).allMatch(i -> filter.mightContain("user" + i)));
+		assertTrue(IntStream.range(0, 500).filter(i -> filter.mightContain("user" + i)).count() < 50);
+	}
+
+	@Test
+	@DisplayName("Should count an element added twice until it is removed twice")
+	void shouldCountDuplicates() {
+		CountingBloomFilter filter = CountingBloomFilter.create(100, 0.01);
+
+		filter.add("twice");
+		filter.add("twice");
+		filter.remove("twice");
+
+		assertTrue(filter.mightContain("twice"));
+		filter.remove("twice");
+		assertFalse(filter.mightContain("twice"));
+		assertEquals(0.0, filter.expectedFalsePositiveProbability());
+	}
+
+	@Test
+	@DisplayName("Should use about 4.8 bytes per element at a 1% rate")
+	void shouldBeCompact() {
+		CountingBloomFilter filter = CountingBloomFilter.create(1_000_000, 0.01);
+
+		assertEquals(7, filter.getHashes());
+		assertTrue(filter.sizeInBytes() < 5_000_000, "Size: " + filter.sizeInBytes());
+	}
+
+	@Test
+	@DisplayName("Should reject invalid sizing")
+	void shouldRejectInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> CountingBloomFilter.create(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> CountingBloomFilter.create(100, 1.0));
+	}
+}
@@ -0,0 +1,51 @@
+package com.loop.api.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class SecretCipherTest {
+
+	private static final String KEY = "test-outbox-key-should-be-32-bytes-long!";
+
+	private final SecretCipher cipher = new SecretCipher(KEY);
+
+	@Test
+	@DisplayName("Should decrypt what it encrypted without storing the plaintext")
+	void shouldRoundTrip() {
+		String token = SplitToken.generate().getValue();
+
+		String encrypted = cipher.encrypt(token, "a@example.com");
+
+		assertFalse(encrypted.contains(token));
+		assertNotEquals(encrypted, cipher.encrypt(token, "a@example.com"));
+		assertTrue(encrypted.length() <= 255);
+		assertEquals(token, cipher.decrypt(encrypted, "a@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should reject a ciphertext under another context or key")
+	void shouldRejectOtherContextOrKey() {
+		String encrypted = cipher.encrypt("123456", "a@example.com");
+
+		assertThrows(IllegalArgumentException.class, () -> cipher.decrypt(encrypted, "b@example.com"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new SecretCipher(KEY + "-rotated").decrypt(encrypted, "a@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should reject plaintext and malformed values")
+	void shouldRejectMalformed() {
+		assertThrows(IllegalArgumentException.class, () -> cipher.decrypt("123456", "a@example.com"));
+		assertThrows(IllegalArgumentException.class, () -> cipher.decrypt("not base64!", "a@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should refuse a short key")
+	void shouldRefuseShortKey() {
+		assertThrows(IllegalArgumentException.class, () -> new SecretCipher("short"));
+	}
+}
@@ -0,0 +1,66 @@
+package com.loop.api.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class SplitTokenTest {
+
+	@Test
+	@DisplayName("Should parse a generated token back to the same selector and validator hash")
+	void shouldRoundTrip() {
+		SplitToken generated = SplitToken.generate();
+
+		SplitToken parsed = SplitToken.parse(generated.getValue()).orElseThrow();
+
+		assertEquals(SplitToken.SELECTOR_BYTES, generated.getSelector().length);
+		assertEquals(SplitToken.VALIDATOR_HASH_BYTES, generated.getValidatorHash().length);
+		assertArrayEquals(generated.getSelector(), parsed.getSelector());
+		assertArrayEquals(generated.getValidatorHash(), parsed.getValidatorHash());
+	}
+
+	@Test
+	@DisplayName("Should produce a different validator hash when the validator is altered")
+	void shouldChangeHashWithValidator() {
+		String value = SplitToken.generate().getValue();
+		String selector = value.substring(0, value.indexOf('.'));
+		String other = selector + SplitToken.generate().getValue().substring(selector.length());
+
+		SplitToken original = SplitToken.parse(value).orElseThrow();
+		SplitToken forged = SplitToken.parse(other).orElseThrow();
+
+		assertArrayEquals(original.getSelector(), forged.getSelector());
+		assertFalse(Arrays.equals(original.getValidatorHash(), forged.getValidatorHash()));
+	}
+
+	@Test
+	@DisplayName("Should map legacy UUID tokens the same way the backfill migration does")
+	void shouldParseLegacyToken() throws Exception {
+		String legacy = UUID.randomUUID().toString();
+		byte[] hash = MessageDigest.getInstance("SHA-256").digest(legacy.getBytes(StandardCharsets.UTF_8));
+
+		SplitToken parsed = SplitToken.parse(legacy).orElseThrow();
+
+		assertArrayEquals(hash, parsed.getValidatorHash());
+		assertArrayEquals(Arrays.copyOf(hash, SplitToken.SELECTOR_BYTES), parsed.getSelector());
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	@ValueSource(strings = {"abc.def", "not base64!.also not", "AAAAAAAAAAAAAAAA."})
+	@DisplayName("Should reject malformed tokens")
+	void shouldRejectMalformedTokens(String value) {
+		assertTrue(SplitToken.parse(value).isEmpty());
+	}
+}
@@ -3,6 +3,7 @@ package com.loop.api.modules.auth.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 import com.loop.api.common.constants.ApiRoutes;
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.auth.dto.LoginRequest;
 import com.loop.api.modules.auth.dto.RegisterRequest;
 import com.loop.api.modules.auth.dto.ResetPasswordRequest;
@@ -76,7 +77,7 @@ public class AuthControllerIT {
 	private PasswordEncoder passwordEncoder;
 
 	@BeforeEach
-	void setUp() {
+	void setUp() throws Exception {
 		doNothing().when(emailService).sendVerificationEmail(anyString(), anyString(), anyString());
 		refreshTokenRepository.deleteAll();
 		verificationTokenRepository.deleteAll();
@@ -150,7 +151,7 @@ public class AuthControllerIT {
 
 		// Create and persist refresh token
 		RefreshToken oldRefreshToken = refreshTokenService.createRefreshToken(user.getId());
-		assertTrue(refreshTokenRepository.findByToken(oldRefreshToken.getToken()).isPresent());
+		assertTrue(findRefreshToken(oldRefreshToken.getToken()).isPresent());
 
 		// Act - perform request with refresh token in body
 		MvcResult result = mockMvc.perform(post(ApiRoutes.Auth.REFRESH)
@@ -170,10 +171,10 @@ public class AuthControllerIT {
 		String newRefreshTokenValue = JsonPath.read(jsonResponse, "$.data.refreshToken");
 
 		// Assert - old token is deleted
-		assertFalse(refreshTokenRepository.findByToken(oldRefreshToken.getToken()).isPresent());
+		assertFalse(findRefreshToken(oldRefreshToken.getToken()).isPresent());
 
 		// Assert - new token is saved
-		Optional<RefreshToken> newTokenOpt = refreshTokenRepository.findByToken(newRefreshTokenValue);
+		Optional<RefreshToken> newTokenOpt = findRefreshToken(newRefreshTokenValue);
 		assertTrue(newTokenOpt.isPresent(), "New refresh token should be saved in DB");
 
 		// Assert - associated user is still correct
@@ -189,7 +190,7 @@ public class AuthControllerIT {
 
 		// Create and persist a valid refresh token
 		RefreshToken validRefreshToken = refreshTokenService.createRefreshToken(user.getId());
-		assertTrue(refreshTokenRepository.findByToken(validRefreshToken.getToken()).isPresent());
+		assertTrue(findRefreshToken(validRefreshToken.getToken()).isPresent());
 
 		// Act - perform the logout request with the valid refresh token in the Authorization header
 		mockMvc.perform(post(ApiRoutes.Auth.LOGOUT)
@@ -201,7 +202,7 @@ public class AuthControllerIT {
 				.andExpect(jsonPath("$.data").value("Refresh token invalidated"));
 
 		// Assert - Check if the refresh token was deleted after logout
-		assertFalse(refreshTokenRepository.findByToken(validRefreshToken.getToken()).isPresent(),
+		assertFalse(findRefreshToken(validRefreshToken.getToken()).isPresent(),
 				"Refresh token should be deleted after logout");
 	}
 
@@ -252,4 +253,9 @@ public class AuthControllerIT {
 		assertTrue(passwordEncoder.matches("newSecurePass123", updatedUser.getPassword()));
 		assertFalse(passwordResetCodeRepository.findByUserEmailAndCode(user.getEmail(), "654321").isPresent());
 	}
-}
\ No newline at end of file
+
+	private Optional<RefreshToken> findRefreshToken(String token) {
+		SplitToken splitToken = SplitToken.parse(token).orElseThrow();
+		return refreshTokenRepository.findWithUser(splitToken.getSelector(), splitToken.getValidatorHash());
+	}
+}
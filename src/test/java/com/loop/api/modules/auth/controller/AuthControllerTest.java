@@ -21,11 +21,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -297,6 +300,24 @@ public class AuthControllerTest {
 					.andExpect(jsonPath("$.data.refreshToken").value("mock-refresh-token"));
 		}
 
+		@Test
+		@DisplayName("Should return 503 with Retry-After if password hashing is saturated")
+		void shouldReturnServiceUnavailableWhenHashingIsBusy() throws Exception {
+			LoginRequest loginRequest = new LoginRequest("test@example.com", "test1234");
+
+			when(authService.loginUser(any(LoginRequest.class)))
+					.thenThrow(new ServiceBusyException("Server is busy, please retry shortly", Duration.ofSeconds(5)));
+
+			mockMvc.perform(post(ApiRoutes.Auth.LOGIN)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(loginRequest)))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "5"))
+					.andExpect(jsonPath("$.status").value("ERROR"))
+					.andExpect(jsonPath("$.code").value(503))
+					.andExpect(jsonPath("$.message").value("Server is busy, please retry shortly"));
+		}
+
 		@Test
 		@DisplayName("Should return 400 if email or password is missing")
 		void shouldReturnBadRequestIfFieldsAreMissing() throws Exception {
@@ -0,0 +1,71 @@
+package com.loop.api.modules.auth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loop.api.common.constants.ApiRoutes;
+import com.loop.api.modules.auth.dto.LoginRequest;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.testutils.TestUserFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AuthLoginStatementsIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User user;
+
+	@BeforeAll
+	void setUp() {
+		user = TestUserFactory.randomRegularUser();
+		user.setPassword(passwordEncoder.encode("password123"));
+		user = userRepository.save(user);
+	}
+
+	@Test
+	@DisplayName("Should load the user once and insert one refresh token on login")
+	void shouldIssueOneSelectAndOneInsert() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(post(ApiRoutes.Auth.LOGIN)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(new LoginRequest(user.getEmail(), "password123"))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.userId").value(user.getId()));
+
+		assertEquals(1, statistics.getQueryExecutionCount());
+		assertEquals(1, statistics.getEntityInsertCount());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,19 @@
+package com.loop.api.modules.auth.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = "app.security.refresh-tokens.store=jpa")
+public class JpaRefreshTokenStoreIT extends RefreshTokenStoreContract {
+
+	@Test
+	@DisplayName("Should select the JPA store")
+	void shouldUseJpaStore() {
+		assertInstanceOf(JpaRefreshTokenStore.class, refreshTokenStore);
+	}
+}
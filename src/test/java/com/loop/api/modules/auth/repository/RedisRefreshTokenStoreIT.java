@@ -0,0 +1,84 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.model.RefreshToken;
+import com.loop.api.modules.user.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = {
+		"app.security.refresh-tokens.store=redis",
+		"app.cache.redis.enabled=true"
+})
+@Testcontainers
+public class RedisRefreshTokenStoreIT extends RefreshTokenStoreContract {
+
+	@Container
+	static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void redisProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Test
+	@DisplayName("Should select the Redis store")
+	void shouldUseRedisStore() {
+		assertInstanceOf(RedisRefreshTokenStore.class, refreshTokenStore);
+	}
+
+	@Test
+	@DisplayName("Should keep the token in the Redis container with its remaining lifetime as TTL")
+	void shouldStoreTokenInRedis() {
+		RefreshToken token = save(newUser(), Duration.ofHours(1));
+
+		String key = "loop-api:refresh-token:" + Base64.getUrlEncoder().withoutPadding().encodeToString(token.getSelector());
+		Long ttl = redisTemplate.getExpire(key);
+		assertNotNull(ttl);
+		assertTrue(ttl > 3500 && ttl <= 3600, "TTL: " + ttl);
+	}
+
+	@Test
+	@DisplayName("Should keep the user's set of selectors in step with rotations and deletes")
+	void shouldTrackSelectorsPerUser() {
+		User user = newUser();
+		RefreshToken saved = save(user, Duration.ofHours(1));
+		SplitToken old = SplitToken.parse(saved.getToken()).orElseThrow();
+		SplitToken rotated = SplitToken.generate();
+		String userKey = "loop-api:refresh-tokens:user:" + user.getId();
+
+		refreshTokenStore.rotate(old, rotated, Instant.now().plus(Duration.ofHours(1)));
+
+		assertEquals(Set.of(encode(rotated.getSelector())), redisTemplate.opsForSet().members(userKey));
+
+		refreshTokenStore.deleteByUserId(user.getId());
+
+		assertFalse(redisTemplate.hasKey(userKey));
+		assertFalse(redisTemplate.hasKey("loop-api:refresh-token:" + encode(rotated.getSelector())));
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
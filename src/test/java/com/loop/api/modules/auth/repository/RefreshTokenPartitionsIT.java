@@ -0,0 +1,100 @@
+package com.loop.api.modules.auth.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest
+@Testcontainers
+public class RefreshTokenPartitionsIT {
+
+	// Partitioning only exists on PostgreSQL, so this test must not fall back to the H2 test datasource
+	@Container
+	static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+	@DynamicPropertySource
+	static void postgresProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+		registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+		registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+		registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+	}
+
+	@Autowired
+	private RefreshTokenPartitions refreshTokenPartitions;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clearTokens() {
+		jdbcTemplate.update("DELETE FROM refresh_tokens");
+		jdbcTemplate.update("INSERT INTO users (email, password, username) VALUES ('p@example.com', 'x', 'p') " +
+				"ON CONFLICT DO NOTHING");
+	}
+
+	@Test
+	@DisplayName("Should create partitions ahead and drop a fully expired one with its rows")
+	void shouldCreateAndDropPartitions() {
+		assertTrue(refreshTokenPartitions.isPartitioned());
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		LocalDate past = today.minusDays(3);
+
+		createPartition(past);
+		insertToken(past);
+
+		refreshTokenPartitions.createAhead(today);
+		int dropped = refreshTokenPartitions.dropBefore(today.minusDays(1));
+
+		assertEquals(1, dropped);
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class));
+		assertEquals(0, refreshTokenPartitions.createAhead(today));
+	}
+
+	@Test
+	@DisplayName("Should delete expired rows from the default partition only")
+	void shouldDeleteExpiredFromDefaultOnly() {
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		LocalDate partitioned = today.minusDays(5);
+		createPartition(partitioned);
+		insertToken(partitioned);
+		// No daily partition covers this day, so the row lands in refresh_tokens_default
+		insertToken(today.minusDays(20));
+
+		int deleted = refreshTokenPartitions.deleteExpiredFromDefault(Instant.now(), 100);
+
+		assertEquals(1, deleted);
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens_default", Integer.class));
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class));
+		refreshTokenPartitions.dropBefore(today.minusDays(1));
+	}
+
+	private void createPartition(LocalDate day) {
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS refresh_tokens_p" + day.toString().replace("-", "") +
+				" PARTITION OF refresh_tokens FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+	}
+
+	private void insertToken(LocalDate expiryDay) {
+		jdbcTemplate.update("INSERT INTO refresh_tokens (selector, validator_hash, expiry_date, user_id) " +
+						"SELECT ?, ?, ?, id FROM users WHERE email = 'p@example.com'",
+				new byte[12], new byte[32], expiryDay.atTime(12, 0));
+	}
+}
@@ -0,0 +1,131 @@
+package com.loop.api.modules.auth.repository;
+
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.model.RefreshToken;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.testutils.TestUserFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link RefreshTokenStore} must share. Subclasses select the backend through configuration.
+ */
+abstract class RefreshTokenStoreContract {
+
+	@Autowired
+	protected RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	protected RefreshToken save(User user, Duration validFor) {
+		RefreshToken token = new RefreshToken();
+		token.setUser(user);
+		token.setCredentials(SplitToken.generate());
+		token.setExpiryDate(Instant.now().plus(validFor).truncatedTo(ChronoUnit.MILLIS));
+		return refreshTokenStore.save(token);
+	}
+
+	protected User newUser() {
+		return userRepository.save(TestUserFactory.randomRegularUser());
+	}
+
+	@Test
+	@DisplayName("Should find a saved token with its user and expiry")
+	void shouldFindSavedToken() {
+		User user = newUser();
+		RefreshToken saved = save(user, Duration.ofHours(1));
+
+		RefreshToken found = refreshTokenStore.findByToken(split(saved)).orElseThrow();
+
+		assertEquals(user.getId(), found.getUser().getId());
+		assertEquals(user.getEmail(), found.getUser().getEmail());
+		assertEquals(saved.getExpiryDate(), found.getExpiryDate().truncatedTo(ChronoUnit.MILLIS));
+	}
+
+	@Test
+	@DisplayName("Should return empty for an unknown token")
+	void shouldNotFindUnknownToken() {
+		assertTrue(refreshTokenStore.findByToken(SplitToken.generate()).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should not find a token whose validator does not match")
+	void shouldNotFindTokenWithWrongValidator() {
+		RefreshToken saved = save(newUser(), Duration.ofHours(1));
+		String selector = saved.getToken().substring(0, saved.getToken().indexOf('.'));
+		String forged = selector + SplitToken.generate().getValue().substring(selector.length());
+
+		assertTrue(refreshTokenStore.findByToken(SplitToken.parse(forged).orElseThrow()).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should rotate a live token exactly once")
+	void shouldRotateOnce() {
+		User user = newUser();
+		SplitToken saved = split(save(user, Duration.ofHours(1)));
+		SplitToken newToken = SplitToken.generate();
+		Instant newExpiry = Instant.now().plus(Duration.ofHours(2));
+
+		Optional<RefreshToken> rotated = refreshTokenStore.rotate(saved, newToken, newExpiry);
+
+		assertTrue(rotated.isPresent());
+		assertArrayEquals(newToken.getSelector(), rotated.get().getSelector());
+		assertEquals(user.getId(), rotated.get().getUser().getId());
+		assertTrue(refreshTokenStore.findByToken(saved).isEmpty());
+		assertTrue(refreshTokenStore.findByToken(newToken).isPresent());
+		assertTrue(refreshTokenStore.rotate(saved, SplitToken.generate(), newExpiry).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should not rotate an expired token")
+	void shouldNotRotateExpiredToken() {
+		SplitToken expired = split(save(newUser(), Duration.ofHours(-1)));
+
+		assertTrue(refreshTokenStore.rotate(expired, SplitToken.generate(),
+				Instant.now().plus(Duration.ofHours(1))).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should delete a single token")
+	void shouldDeleteByToken() {
+		User user = newUser();
+		SplitToken deleted = split(save(user, Duration.ofHours(1)));
+		SplitToken kept = split(save(user, Duration.ofHours(1)));
+
+		refreshTokenStore.deleteByToken(deleted);
+
+		assertTrue(refreshTokenStore.findByToken(deleted).isEmpty());
+		assertTrue(refreshTokenStore.findByToken(kept).isPresent());
+	}
+
+	@Test
+	@DisplayName("Should delete every token of one user, including rotated ones")
+	void shouldDeleteByUserId() {
+		User user = newUser();
+		User other = newUser();
+		SplitToken first = split(save(user, Duration.ofHours(1)));
+		save(user, Duration.ofHours(1));
+		SplitToken otherToken = split(save(other, Duration.ofHours(1)));
+		SplitToken rotated = SplitToken.generate();
+		refreshTokenStore.rotate(first, rotated, Instant.now().plus(Duration.ofHours(1)));
+
+		refreshTokenStore.deleteByUserId(user.getId());
+
+		assertTrue(refreshTokenStore.findByToken(rotated).isEmpty());
+		assertTrue(refreshTokenStore.findByToken(otherToken).isPresent());
+	}
+
+	private static SplitToken split(RefreshToken token) {
+		return SplitToken.parse(token.getToken()).orElseThrow();
+	}
+}
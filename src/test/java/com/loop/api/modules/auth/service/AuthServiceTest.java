@@ -1,18 +1,25 @@
 package com.loop.api.modules.auth.service;
 
 import com.loop.api.common.exception.*;
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.auth.dto.LoginRequest;
 import com.loop.api.modules.auth.dto.LoginResponse;
 import com.loop.api.modules.auth.dto.RegisterRequest;
+import com.loop.api.modules.auth.model.OutboxEmail;
 import com.loop.api.modules.auth.model.PasswordResetCode;
 import com.loop.api.modules.auth.model.RefreshToken;
 import com.loop.api.modules.auth.model.VerificationToken;
 import com.loop.api.modules.auth.repository.PasswordResetCodeRepository;
 import com.loop.api.modules.auth.repository.VerificationTokenRepository;
 import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UniqueUserFields;
 import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.modules.user.service.RegisteredEmailFilter;
+import com.loop.api.modules.user.service.UserCacheService;
 import com.loop.api.security.JwtTokenProvider;
 import com.loop.api.security.UserPrincipal;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
@@ -21,14 +28,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.Authentication;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,15 +55,21 @@ public class AuthServiceTest {
 	@Mock
 	private PasswordEncoder passwordEncoder;
 	@Mock
-	private AuthenticationManager authenticationManager;
-	@Mock
 	private RefreshTokenService refreshTokenService;
 	@Mock
-	private EmailService emailService;
+	private EmailOutboxService emailOutboxService;
+	@Mock
+	private EmailSendCoalescer emailSendCoalescer;
 	@Mock
 	private JwtTokenProvider jwtTokenProvider;
 	@Mock
 	private PasswordResetCodeRepository passwordResetCodeRepository;
+	@Mock
+	private UserCacheService userCacheService;
+	@Mock
+	private RegisteredEmailFilter registeredEmailFilter;
+	@Mock
+	private TransactionTemplate transactionTemplate;
 
 	@InjectMocks
 	private AuthService authService;
@@ -61,21 +78,27 @@ public class AuthServiceTest {
 	@DisplayName("Tests for signup service")
 	class RegisterTests {
 
+		@BeforeEach
+		void runTransactionsInline() {
+			lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+					invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		}
+
 		@Test
 		@DisplayName("Should register user successfully")
 		void shouldRegisterUserSuccessfully() {
 			RegisterRequest request = new RegisterRequest("new@example.com", "password", "newuser");
 
-			when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
-			when(userRepository.findByUsername("newuser")).thenReturn(Optional.empty());
 			when(passwordEncoder.encode("password")).thenReturn("encodedPass");
 
 			String result = authService.registerUser(request);
 
 			assertEquals("User registered successfully", result);
 			verify(userRepository).save(any(User.class));
+			verify(registeredEmailFilter).add("new@example.com");
 			verify(verificationTokenRepository).save(any(VerificationToken.class));
-			verify(emailService).sendVerificationEmail(eq("new@example.com"), anyString(), anyString());
+			verify(emailOutboxService).enqueueVerificationEmail(eq("new@example.com"), anyString(), anyString());
+			verify(emailSendCoalescer).recordSend(OutboxEmail.Type.VERIFICATION, "new@example.com");
 		}
 
 		@Test
@@ -83,17 +106,18 @@ public class AuthServiceTest {
 		void shouldThrowUserAlreadyExistsExceptionIfEmailExists() {
 			RegisterRequest request = new RegisterRequest("exists@example.com", "password", "existinguser");
 
-			User existingUser = new User();
-			existingUser.setId(123L);
+			when(userRepository.findUniqueFieldConflicts("exists@example.com", "existinguser", null, null))
+					.thenReturn(List.of(new UniqueUserFields("exists@example.com", "other", null)));
 
-			when(userRepository.findByEmail("exists@example.com"))
-					.thenReturn(Optional.of(existingUser));
+			UserAlreadyExistsException ex = assertThrows(UserAlreadyExistsException.class,
+					() -> authService.registerUser(request));
 
-			assertThrows(UserAlreadyExistsException.class, () -> authService.registerUser(request));
+			assertEquals("User with email 'exists@example.com' already exists.", ex.getMessage());
+			verify(passwordEncoder, never()).encode(any());
 
 			verify(userRepository, never()).save(any());
 			verify(verificationTokenRepository, never()).save(any());
-			verify(emailService, never()).sendVerificationEmail(any(), any(), any());
+			verify(emailOutboxService, never()).enqueueVerificationEmail(any(), any(), any());
 		}
 
 		@Test
@@ -101,17 +125,17 @@ public class AuthServiceTest {
 		void shouldThrowUserAlreadyExistsExceptionIfUsernameExists() {
 			RegisterRequest request = new RegisterRequest("exists@example.com", "password", "existinguser");
 
-			User existingUser = new User();
-			existingUser.setId(123L);
+			when(userRepository.findUniqueFieldConflicts("exists@example.com", "existinguser", null, null))
+					.thenReturn(List.of(new UniqueUserFields("other@example.com", "existinguser", null)));
 
-			when(userRepository.findByEmail("exists@example.com")).thenReturn(Optional.empty());
-			when(userRepository.findByUsername("existinguser")).thenReturn(Optional.of(existingUser));
+			UserAlreadyExistsException ex = assertThrows(UserAlreadyExistsException.class,
+					() -> authService.registerUser(request));
 
-			assertThrows(UserAlreadyExistsException.class, () -> authService.registerUser(request));
+			assertEquals(Map.of("username", "User with username 'existinguser' already exists."), ex.getConflicts());
 
 			verify(userRepository, never()).save(any());
 			verify(verificationTokenRepository, never()).save(any());
-			verify(emailService, never()).sendVerificationEmail(any(), any(), any());
+			verify(emailOutboxService, never()).enqueueVerificationEmail(any(), any(), any());
 		}
 
 		@Test
@@ -119,8 +143,6 @@ public class AuthServiceTest {
 		void shouldThrowRuntimeExceptionOnUnexpectedSaveFailure() {
 			RegisterRequest request = new RegisterRequest("new@example.com", "password", "newuser");
 
-			when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
-			when(userRepository.findByUsername("newuser")).thenReturn(Optional.empty());
 			when(passwordEncoder.encode("password")).thenReturn("encoded");
 
 			doThrow(new RuntimeException("DB error")).when(userRepository).save(any());
@@ -131,7 +153,25 @@ public class AuthServiceTest {
 			assertTrue(ex.getMessage().contains("Error registering user"));
 
 			verify(verificationTokenRepository, never()).save(any());
-			verify(emailService, never()).sendVerificationEmail(any(), any(), any());
+			verify(emailOutboxService, never()).enqueueVerificationEmail(any(), any(), any());
+		}
+
+		@Test
+		@DisplayName("Should report a conflict when a concurrent signup wins the unique constraint")
+		void shouldTranslateUniqueViolationOnSave() {
+			RegisterRequest request = new RegisterRequest("race@example.com", "password", "raceuser");
+
+			when(passwordEncoder.encode("password")).thenReturn("encoded");
+			doThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+					"duplicate", new SQLException("duplicate key", "23505"),
+					ConstraintViolationException.ConstraintKind.UNIQUE, "users_email_key")))
+					.when(userRepository).save(any());
+
+			UserAlreadyExistsException ex = assertThrows(UserAlreadyExistsException.class,
+					() -> authService.registerUser(request));
+
+			assertEquals("User with email 'race@example.com' already exists.", ex.getMessage());
+			verify(emailOutboxService, never()).enqueueVerificationEmail(any(), any(), any());
 		}
 	}
 
@@ -143,22 +183,25 @@ public class AuthServiceTest {
 		@Test
 		@DisplayName("Should verify user and delete token if token is valid and not expired")
 		void shouldVerifyUserSuccessfully() {
-			String token = "valid-token";
+			SplitToken splitToken = SplitToken.generate();
+			String token = splitToken.getValue();
 
 			User user = new User();
 			user.setVerified(false);
 
 			VerificationToken verificationToken = new VerificationToken();
-			verificationToken.setToken(token);
+			verificationToken.setCredentials(splitToken);
 			verificationToken.setUser(user);
 			verificationToken.setExpiryDate(Instant.now().plus(Duration.ofHours(1)));
 
-			when(verificationTokenRepository.findByToken(token))
+			when(verificationTokenRepository.findBySelectorAndValidatorHash(splitToken.getSelector(),
+					splitToken.getValidatorHash()))
 					.thenReturn(Optional.of(verificationToken));
 
 			authService.verifyEmailToken(token);
 
 			assertTrue(user.isVerified(), "User should be marked as verified");
+			verify(userCacheService).evict(user);
 			verify(userRepository).save(user);
 			verify(verificationTokenRepository).delete(verificationToken);
 		}
@@ -166,9 +209,9 @@ public class AuthServiceTest {
 		@Test
 		@DisplayName("Should throw InvalidTokenException when token is not found")
 		void shouldThrowWhenTokenNotFound() {
-			String token = "invalid-token";
+			String token = SplitToken.generate().getValue();
 
-			when(verificationTokenRepository.findByToken(token))
+			when(verificationTokenRepository.findBySelectorAndValidatorHash(any(), any()))
 					.thenReturn(Optional.empty());
 
 			assertThrows(InvalidTokenException.class,
@@ -178,15 +221,17 @@ public class AuthServiceTest {
 		@Test
 		@DisplayName("Should throw InvalidTokenException when token is expired")
 		void shouldThrowWhenTokenIsExpired() {
-			String token = "expired-token";
+			SplitToken splitToken = SplitToken.generate();
+			String token = splitToken.getValue();
 
 			User user = new User();
 			VerificationToken expiredToken = new VerificationToken();
-			expiredToken.setToken(token);
+			expiredToken.setCredentials(splitToken);
 			expiredToken.setUser(user);
 			expiredToken.setExpiryDate(Instant.now().minus(Duration.ofHours(1)));
 
-			when(verificationTokenRepository.findByToken(token))
+			when(verificationTokenRepository.findBySelectorAndValidatorHash(splitToken.getSelector(),
+					splitToken.getValidatorHash()))
 					.thenReturn(Optional.of(expiredToken));
 
 			assertThrows(InvalidTokenException.class,
@@ -212,13 +257,29 @@ public class AuthServiceTest {
 
 			verify(verificationTokenRepository).deleteByUser(user);
 			verify(verificationTokenRepository).save(any(VerificationToken.class));
-			verify(emailService).sendVerificationEmail(
+			verify(emailOutboxService).enqueueVerificationEmail(
 					eq("test@example.com"),
 					eq("Testy"),
 					anyString()
 			);
 		}
 
+		@Test
+		@DisplayName("Should keep the pending token when a resend is coalesced")
+		void shouldSkipCoalescedResend() {
+			User user = new User();
+			user.setEmail("test@example.com");
+			user.setVerified(false);
+
+			when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+			when(emailSendCoalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "test@example.com")).thenReturn(true);
+
+			authService.resendVerificationEmail("test@example.com");
+
+			verifyNoInteractions(verificationTokenRepository);
+			verifyNoInteractions(emailOutboxService);
+		}
+
 		@Test
 		@DisplayName("Should throw UserNotFoundException if user is not found")
 		void shouldThrowIfUserNotFound() {
@@ -228,7 +289,7 @@ public class AuthServiceTest {
 					authService.resendVerificationEmail("missing@example.com"));
 
 			verifyNoInteractions(verificationTokenRepository);
-			verifyNoInteractions(emailService);
+			verifyNoInteractions(emailOutboxService);
 		}
 
 		@Test
@@ -246,7 +307,7 @@ public class AuthServiceTest {
 			assertTrue(ex.getMessage().contains("already verified"));
 
 			verify(verificationTokenRepository, never()).deleteByUser(any());
-			verify(emailService, never()).sendVerificationEmail(any(), any(), any());
+			verify(emailOutboxService, never()).enqueueVerificationEmail(any(), any(), any());
 		}
 	}
 
@@ -263,33 +324,29 @@ public class AuthServiceTest {
 			user.setPassword("hashedPassword");
 			user.setUsername("some-username");
 
-			UserPrincipal userPrincipal = new UserPrincipal(user);
-
-			Authentication authentication = mock(Authentication.class);
-			when(authentication.getPrincipal()).thenReturn(userPrincipal);
-
 			RefreshToken refreshToken = new RefreshToken();
 			refreshToken.setToken("refresh-token");
 			refreshToken.setUser(user);
 
-			when(refreshTokenService.createRefreshToken(user.getId()))
-					.thenReturn(refreshToken);
-
-
 			when(userRepository.findByEmail("user@example.com"))
 					.thenReturn(Optional.of(user));
 
-			when(authenticationManager.authenticate(any()))
-					.thenReturn(authentication);
+			when(passwordEncoder.matches("password", "hashedPassword"))
+					.thenReturn(true);
+
+			when(refreshTokenService.createRefreshToken(user))
+					.thenReturn(refreshToken);
 
-			when(jwtTokenProvider.generateToken(userPrincipal))
+			when(jwtTokenProvider.generateToken(any(UserPrincipal.class)))
 					.thenReturn("jwt-token");
 
 			LoginResponse response = authService.loginUser(request);
 
 			assertEquals("jwt-token", response.getAccessToken());
-			verify(authenticationManager).authenticate(any());
-			verify(jwtTokenProvider).generateToken(userPrincipal);
+			assertEquals("refresh-token", response.getRefreshToken());
+			verify(userRepository, times(1)).findByEmail("user@example.com");
+			verify(refreshTokenService).createRefreshToken(user);
+			verify(refreshTokenService, never()).createRefreshToken(any(Long.class));
 		}
 
 		@Test
@@ -315,10 +372,11 @@ public class AuthServiceTest {
 			when(userRepository.findByEmail("user@example.com"))
 					.thenReturn(Optional.of(user));
 
-			when(authenticationManager.authenticate(any()))
-					.thenThrow(new BadCredentialsException("Bad credentials"));
+			when(passwordEncoder.matches("wrongPassword", "hashedPassword"))
+					.thenReturn(false);
 
 			assertThrows(InvalidCredentialsException.class, () -> authService.loginUser(request));
+			verify(refreshTokenService, never()).createRefreshToken(any(User.class));
 		}
 
 		@Test
@@ -333,7 +391,7 @@ public class AuthServiceTest {
 			when(userRepository.findByEmail("user@example.com"))
 					.thenReturn(Optional.of(user));
 
-			when(authenticationManager.authenticate(any()))
+			when(passwordEncoder.matches("password", "hashedPassword"))
 					.thenThrow(new RuntimeException("DB error"));
 
 			RuntimeException exception = assertThrows(RuntimeException.class,
@@ -355,10 +413,6 @@ public class AuthServiceTest {
 			user.setId(1L);
 			user.setEmail("user@example.com");
 
-			RefreshToken oldToken = new RefreshToken();
-			oldToken.setToken("old-refresh-token");
-			oldToken.setUser(user);
-
 			RefreshToken newToken = new RefreshToken();
 			newToken.setToken("new-refresh-token");
 			newToken.setUser(user);
@@ -369,9 +423,7 @@ public class AuthServiceTest {
 			loginResponse.setUserId(user.getId());
 
 			// Mocks
-			when(refreshTokenService.verifyRefreshToken("old-refresh-token")).thenReturn(oldToken);
-			doNothing().when(refreshTokenService).deleteByToken("old-refresh-token");
-			when(refreshTokenService.createRefreshToken(user.getId())).thenReturn(newToken);
+			when(refreshTokenService.rotateRefreshToken("old-refresh-token")).thenReturn(Optional.of(newToken));
 			when(jwtTokenProvider.generateToken(any(UserPrincipal.class))).thenReturn("new-access-token");
 
 			// Act
@@ -383,15 +435,14 @@ public class AuthServiceTest {
 			assertEquals("new-refresh-token", result.getRefreshToken());
 			assertEquals(user.getId(), result.getUserId());
 
-			verify(refreshTokenService).deleteByToken("old-refresh-token");
-			verify(refreshTokenService).createRefreshToken(user.getId());
+			verify(refreshTokenService).rotateRefreshToken("old-refresh-token");
+			verify(refreshTokenService, never()).createRefreshToken(any(Long.class));
 		}
 
 		@Test
 		@DisplayName("Should throw InvalidTokenException when the refresh token is invalid or expired")
 		void shouldThrowInvalidTokenExceptionWhenTokenInvalid() {
-			when(refreshTokenService.verifyRefreshToken("invalid-refresh-token"))
-					.thenThrow(new InvalidTokenException("Refresh token is invalid or expired"));
+			when(refreshTokenService.rotateRefreshToken("invalid-refresh-token")).thenReturn(Optional.empty());
 
 			InvalidTokenException exception = assertThrows(InvalidTokenException.class, () -> {
 				authService.refreshAccessToken("invalid-refresh-token");
@@ -459,27 +510,31 @@ public class AuthServiceTest {
 	class EmailRegistrationTests {
 
 		@Test
-		@DisplayName("Should return false when email is not registered")
+		@DisplayName("Should return false without a database lookup when the filter rules the email out")
 		void shouldReturnFalseWhenEmailNotRegistered() {
 			String email = "new@example.com";
 
-			when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+			when(registeredEmailFilter.isRegistered(eq(email), any())).thenReturn(false);
 
 			boolean result = authService.isEmailRegistered(email);
 
 			assertFalse(result);
+			verifyNoInteractions(userRepository);
 		}
 
 		@Test
-		@DisplayName("Should return true when email check throws UserAlreadyExistsException")
-		void shouldReturnTrueWhenEmailCheckThrowsException() {
+		@DisplayName("Should confirm a possible match against the database")
+		void shouldReturnTrueWhenEmailExists() {
 			String email = "exists@example.com";
 
-			when(userRepository.findByEmail(email)).thenThrow(new UserAlreadyExistsException("User already exists"));
+			when(registeredEmailFilter.isRegistered(eq(email), any())).thenAnswer(invocation ->
+					invocation.<Predicate<String>>getArgument(1).test(email));
+			when(userRepository.existsByEmail(email)).thenReturn(true);
 
 			boolean result = authService.isEmailRegistered(email);
 
 			assertTrue(result);
+			verify(userRepository).existsByEmail(email);
 		}
 	}
 
@@ -500,7 +555,23 @@ public class AuthServiceTest {
 
 			verify(passwordResetCodeRepository).deleteByUser(user);
 			verify(passwordResetCodeRepository).save(any(PasswordResetCode.class));
-			verify(emailService).sendResetPasswordEmail(eq("reset@example.com"), eq("resetuser"), anyString());
+			verify(emailOutboxService).enqueueResetPasswordEmail(eq("reset@example.com"), eq("resetuser"), anyString());
+		}
+
+		@Test
+		@DisplayName("Should keep the pending reset code when a repeat request is coalesced")
+		void shouldSkipCoalescedResetEmail() {
+			User user = new User();
+			user.setEmail("reset@example.com");
+
+			when(userRepository.findByEmail("reset@example.com")).thenReturn(Optional.of(user));
+			when(emailSendCoalescer.isCoalesced(OutboxEmail.Type.PASSWORD_RESET, "reset@example.com"))
+					.thenReturn(true);
+
+			authService.sendPasswordResetEmail("reset@example.com");
+
+			verifyNoInteractions(passwordResetCodeRepository);
+			verifyNoInteractions(emailOutboxService);
 		}
 
 		@Test
@@ -513,7 +584,7 @@ public class AuthServiceTest {
 
 			verify(passwordResetCodeRepository, never()).deleteByUser(any());
 			verify(passwordResetCodeRepository, never()).save(any());
-			verify(emailService, never()).sendResetPasswordEmail(any(), any(), any());
+			verify(emailOutboxService, never()).enqueueResetPasswordEmail(any(), any(), any());
 		}
 	}
 
@@ -580,6 +651,7 @@ public class AuthServiceTest {
 			authService.resetPassword(email, code, newPassword);
 
 			assertEquals("encoded", user.getPassword());
+			verify(userCacheService).evict(user);
 			verify(userRepository).save(user);
 			verify(passwordResetCodeRepository).delete(validCode);
 		}
@@ -0,0 +1,92 @@
+package com.loop.api.modules.auth.service;
+
+import com.loop.api.modules.auth.model.OutboxEmail;
+import com.loop.api.modules.auth.repository.OutboxEmailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxServiceTest {
+
+	@Mock
+	private OutboxEmailRepository outboxEmailRepository;
+
+	private EmailOutboxService emailOutboxService;
+
+	@BeforeEach
+	void setUp() {
+		emailOutboxService = new EmailOutboxService(outboxEmailRepository, 3, Duration.ofSeconds(30),
+				Duration.ofMinutes(10), Duration.ofMinutes(5), "test-outbox-key-should-be-32-bytes-long!");
+	}
+
+	@Test
+	@DisplayName("Should store the secret encrypted and recover it for sending")
+	void shouldEncryptSecret() {
+		ArgumentCaptor<OutboxEmail> saved = ArgumentCaptor.forClass(OutboxEmail.class);
+
+		emailOutboxService.enqueueVerificationEmail("a@example.com", "a", "token-value");
+
+		verify(outboxEmailRepository).save(saved.capture());
+		assertFalse(saved.getValue().getSecret().contains("token-value"));
+		assertEquals("token-value", emailOutboxService.secretOf(saved.getValue()));
+	}
+
+	@Test
+	@DisplayName("Should double the backoff per attempt up to the maximum")
+	void shouldBackOffExponentially() {
+		assertEquals(Duration.ofSeconds(30), emailOutboxService.backoffFor(1));
+		assertEquals(Duration.ofSeconds(60), emailOutboxService.backoffFor(2));
+		assertEquals(Duration.ofMinutes(8), emailOutboxService.backoffFor(5));
+		assertEquals(Duration.ofMinutes(10), emailOutboxService.backoffFor(6));
+		assertEquals(Duration.ofMinutes(10), emailOutboxService.backoffFor(100));
+	}
+
+	@Test
+	@DisplayName("Should reschedule a failed email while attempts remain")
+	void shouldRescheduleFailedEmail() {
+		OutboxEmail email = email(1);
+
+		assertFalse(emailOutboxService.markFailed(1L, "SMTP down"));
+
+		assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+		assertEquals("SMTP down", email.getLastError());
+		assertTrue(email.getNextAttemptAt().isAfter(Instant.now().plusSeconds(20)));
+	}
+
+	@Test
+	@DisplayName("Should give up and clear the secret once attempts are used up")
+	void shouldGiveUpAfterMaxAttempts() {
+		OutboxEmail email = email(3);
+
+		assertTrue(emailOutboxService.markFailed(1L, "SMTP down"));
+
+		assertEquals(OutboxEmail.Status.FAILED, email.getStatus());
+		assertNull(email.getSecret());
+	}
+
+	private OutboxEmail email(int attempts) {
+		OutboxEmail email = new OutboxEmail();
+		email.setId(1L);
+		email.setType(OutboxEmail.Type.VERIFICATION);
+		email.setSecret("token");
+		email.setAttempts(attempts);
+		email.setNextAttemptAt(Instant.now());
+		when(outboxEmailRepository.findById(1L)).thenReturn(Optional.of(email));
+		return email;
+	}
+}
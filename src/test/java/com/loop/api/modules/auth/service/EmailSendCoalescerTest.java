@@ -0,0 +1,150 @@
+package com.loop.api.modules.auth.service;
+
+import com.loop.api.modules.auth.model.OutboxEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+public class EmailSendCoalescerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@SuppressWarnings("unchecked")
+	private EmailSendCoalescer coalescer(Duration window, StringRedisTemplate redisTemplate) {
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getObject()).thenReturn(redisTemplate);
+		return new EmailSendCoalescer(window, 100, redisTemplate != null, provider, meterRegistry);
+	}
+
+	private double coalesced(String type, String level) {
+		return meterRegistry.get("email.coalesced").tag("type", type).tag("level", level).counter().count();
+	}
+
+	@Test
+	@DisplayName("Should suppress repeats to the same recipient and type within the window")
+	void shouldSuppressLocalRepeats() {
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), null);
+
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+		assertTrue(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "USER@example.com"));
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.PASSWORD_RESET, "user@example.com"));
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "other@example.com"));
+
+		assertEquals(1, coalesced("VERIFICATION", "local"));
+	}
+
+	@Test
+	@DisplayName("Should never suppress when the window is zero")
+	void shouldAllowEverythingWhenDisabled() {
+		EmailSendCoalescer coalescer = coalescer(Duration.ZERO, null);
+
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should suppress a send another node already made within the window")
+	@SuppressWarnings("unchecked")
+	void shouldSuppressWhenRedisKeyExists() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> ops = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(ops);
+		when(ops.setIfAbsent(startsWith("loop-api:email-coalesce:PASSWORD_RESET:"), eq("1"), eq(Duration.ofMinutes(1))))
+				.thenReturn(false);
+
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), redisTemplate);
+
+		assertTrue(coalescer.isCoalesced(OutboxEmail.Type.PASSWORD_RESET, "user@example.com"));
+		assertEquals(1, coalesced("PASSWORD_RESET", "redis"));
+	}
+
+	@Test
+	@DisplayName("Should fall back to the local decision when Redis is unreachable")
+	void shouldDecideLocallyWhenRedisFails() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), redisTemplate);
+
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+		assertTrue(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should forget a send whose transaction rolled back")
+	void shouldForgetOnRollback() {
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), null);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should coalesce a resend right after a recorded send once its transaction commits")
+	void shouldCoalesceAfterRecordedSend() {
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), null);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			coalescer.recordSend(OutboxEmail.Type.VERIFICATION, "user@example.com");
+			assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "other@example.com"));
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertTrue(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should not record a send whose transaction rolled back")
+	void shouldNotRecordUncommittedSend() {
+		EmailSendCoalescer coalescer = coalescer(Duration.ofMinutes(1), null);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			coalescer.recordSend(OutboxEmail.Type.VERIFICATION, "user@example.com");
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertFalse(coalescer.isCoalesced(OutboxEmail.Type.VERIFICATION, "user@example.com"));
+	}
+
+	@Test
+	@DisplayName("Should share a recorded send with other nodes through Redis")
+	@SuppressWarnings("unchecked")
+	void shouldRecordSendInRedis() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> ops = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(ops);
+
+		coalescer(Duration.ofMinutes(1), redisTemplate).recordSend(OutboxEmail.Type.VERIFICATION, "user@example.com");
+
+		verify(ops).set(startsWith("loop-api:email-coalesce:VERIFICATION:"), eq("1"), eq(Duration.ofMinutes(1)));
+	}
+}
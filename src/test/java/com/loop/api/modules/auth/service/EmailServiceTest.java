@@ -1,24 +1,28 @@
 package com.loop.api.modules.auth.service;
 
+import jakarta.mail.Multipart;
 import jakarta.mail.Session;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @Tag("UnitTest")
 @ExtendWith(MockitoExtension.class)
-@EnableAsync
 class EmailServiceTest {
 
 	@Mock
@@ -47,8 +51,6 @@ class EmailServiceTest {
 
 			emailService.sendVerificationEmail("test@example.com", "Testy", "abc123");
 
-			Thread.sleep(200); // give time for async
-
 			// Verify the template engine was used correctly
 			ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
 			verify(templateEngine).process(eq("verification-email"), contextCaptor.capture());
@@ -63,7 +65,32 @@ class EmailServiceTest {
 
 
 		@Test
-		void shouldLogErrorWhenEmailSendFails() throws Exception {
+		@DisplayName("Should embed the logo as an inline part decodable to the original image")
+		void shouldEmbedLogoInline() throws Exception {
+			when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+			when(templateEngine.process(eq("verification-email"), any(Context.class)))
+					.thenReturn("<html><body><img src=\"cid:loop-logo\"></body></html>");
+			ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
+
+			emailService.sendVerificationEmail("a@example.com", "A", "t1");
+			emailService.sendVerificationEmail("b@example.com", "B", "t2");
+
+			verify(mailSender, times(2)).send(messageCaptor.capture());
+			byte[] expected = new ClassPathResource("static/images/logo.png").getContentAsByteArray();
+			for (MimeMessage sent : messageCaptor.getAllValues()) {
+				sent.saveChanges();
+				ByteArrayOutputStream raw = new ByteArrayOutputStream();
+				sent.writeTo(raw);
+				MimeMessage parsed = new MimeMessage(null, new ByteArrayInputStream(raw.toByteArray()));
+				MimeBodyPart logo = findPart(parsed.getContent(), "<loop-logo>");
+				assertNotNull(logo);
+				assertArrayEquals(expected, logo.getInputStream().readAllBytes());
+			}
+		}
+
+		@Test
+		@DisplayName("Should propagate send failures so the outbox can retry")
+		void shouldThrowWhenEmailSendFails() throws Exception {
 			MimeMessage mimeMessage = new MimeMessage((Session) null);
 			when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
 			when(templateEngine.process(anyString(), any(Context.class)))
@@ -72,9 +99,8 @@ class EmailServiceTest {
 			doThrow(new MailSendException("SMTP error"))
 					.when(mailSender).send(any(MimeMessage.class));
 
-			emailService.sendVerificationEmail("fail@example.com", "TestFail", "xyz");
-
-			Thread.sleep(200); // wait for async
+			assertThrows(MailSendException.class,
+					() -> emailService.sendVerificationEmail("fail@example.com", "TestFail", "xyz"));
 
 			verify(mailSender).send(any(MimeMessage.class));
 			verify(templateEngine).process(eq("verification-email"), any(Context.class));
@@ -95,9 +121,6 @@ class EmailServiceTest {
 
 			emailService.sendResetPasswordEmail("reset@example.com", "Resetty", "654321");
 
-			// Delay for @Async execution (if not removed)
-			Thread.sleep(200);
-
 			ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
 			verify(templateEngine).process(eq("reset-password-email"), contextCaptor.capture());
 
@@ -109,8 +132,8 @@ class EmailServiceTest {
 		}
 
 		@Test
-		@DisplayName("Should log error when reset password email fails to send")
-		void shouldLogErrorWhenResetPasswordEmailFails() throws Exception {
+		@DisplayName("Should propagate reset password email send failures so the outbox can retry")
+		void shouldThrowWhenResetPasswordEmailFails() throws Exception {
 			MimeMessage mimeMessage = new MimeMessage((Session) null);
 			when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
 			when(templateEngine.process(anyString(), any(Context.class)))
@@ -118,12 +141,27 @@ class EmailServiceTest {
 
 			doThrow(new MailSendException("SMTP error")).when(mailSender).send(any(MimeMessage.class));
 
-			emailService.sendResetPasswordEmail("fail@example.com", "FailUser", "000000");
-
-			Thread.sleep(200); // wait for async if needed
+			assertThrows(MailSendException.class,
+					() -> emailService.sendResetPasswordEmail("fail@example.com", "FailUser", "000000"));
 
 			verify(mailSender).send(any(MimeMessage.class));
 			verify(templateEngine).process(eq("reset-password-email"), any(Context.class));
 		}
 	}
+
+	private static MimeBodyPart findPart(Object content, String contentId) throws Exception {
+		if (content instanceof Multipart multipart) {
+			for (int i = 0; i < multipart.getCount(); i++) {
+				MimeBodyPart part = (MimeBodyPart) multipart.getBodyPart(i);
+				if (contentId.equals(part.getContentID())) {
+					return part;
+				}
+				MimeBodyPart nested = findPart(part.getContent(), contentId);
+				if (nested != null) {
+					return nested;
+				}
+			}
+		}
+		return null;
+	}
 }
@@ -0,0 +1,83 @@
+package com.loop.api.modules.auth.service;
+
+import com.loop.api.common.exception.InvalidTokenException;
+import com.loop.api.common.util.SplitToken;
+import com.loop.api.modules.auth.dto.LoginResponse;
+import com.loop.api.modules.auth.model.RefreshToken;
+import com.loop.api.modules.auth.repository.RefreshTokenStore;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.testutils.TestUserFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest
+public class RefreshTokenRotationIT {
+
+	private static final int CONCURRENT_REFRESHES = 16;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	@DisplayName("Should let exactly one of many parallel refreshes with the same token succeed")
+	void shouldRotateOnceUnderConcurrency() throws Exception {
+		User user = userRepository.save(TestUserFactory.randomRegularUser());
+		String oldToken = refreshTokenService.createRefreshToken(user).getToken();
+
+		ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REFRESHES);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<LoginResponse>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < CONCURRENT_REFRESHES; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return authService.refreshAccessToken(oldToken);
+				}));
+			}
+			start.countDown();
+
+			List<LoginResponse> successes = new ArrayList<>();
+			int rejected = 0;
+			for (Future<LoginResponse> result : results) {
+				try {
+					successes.add(result.get(30, TimeUnit.SECONDS));
+				} catch (ExecutionException e) {
+					assertInstanceOf(InvalidTokenException.class, e.getCause());
+					rejected++;
+				}
+			}
+
+			assertEquals(1, successes.size());
+			assertEquals(CONCURRENT_REFRESHES - 1, rejected);
+
+			LoginResponse winner = successes.get(0);
+			assertEquals(user.getId(), winner.getUserId());
+			assertTrue(refreshTokenStore.findByToken(SplitToken.parse(oldToken).orElseThrow()).isEmpty());
+			RefreshToken current = refreshTokenStore.findByToken(SplitToken.parse(winner.getRefreshToken()).orElseThrow())
+					.orElseThrow();
+			assertEquals(user.getId(), current.getUser().getId());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
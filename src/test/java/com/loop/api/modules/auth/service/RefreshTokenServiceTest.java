@@ -2,14 +2,16 @@ package com.loop.api.modules.auth.service;
 
 import com.loop.api.common.exception.InvalidTokenException;
 import com.loop.api.common.exception.UserNotFoundException;
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.auth.model.RefreshToken;
-import com.loop.api.modules.auth.repository.RefreshTokenRepository;
+import com.loop.api.modules.auth.repository.RefreshTokenStore;
 import com.loop.api.modules.user.model.User;
 import com.loop.api.modules.user.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -24,14 +26,14 @@ public class RefreshTokenServiceTest {
 
 	private final Long userId = 1L;
 	@Mock
-	private RefreshTokenRepository refreshTokenRepository;
+	private RefreshTokenStore refreshTokenStore;
 	@Mock
 	private UserRepository userRepository;
 	private RefreshTokenService refreshTokenService;
 
 	@BeforeEach
 	void setUp() {
-		refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, 3600000L);
+		refreshTokenService = new RefreshTokenService(refreshTokenStore, userRepository, 3600000L);
 	}
 
 	@Nested
@@ -45,11 +47,13 @@ public class RefreshTokenServiceTest {
 			mockUser.setId(userId);
 
 			when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-			when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+			when(refreshTokenStore.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
 			RefreshToken token = refreshTokenService.createRefreshToken(userId);
 
 			assertNotNull(token.getToken());
+			assertEquals(SplitToken.SELECTOR_BYTES, token.getSelector().length);
+			assertEquals(SplitToken.VALIDATOR_HASH_BYTES, token.getValidatorHash().length);
 			assertNotNull(token.getExpiryDate());
 			assertEquals(mockUser, token.getUser());
 		}
@@ -61,6 +65,70 @@ public class RefreshTokenServiceTest {
 
 			assertThrows(UserNotFoundException.class, () -> refreshTokenService.createRefreshToken(userId));
 		}
+
+		@Test
+		@DisplayName("Should create a refresh token for an already loaded user without looking it up")
+		void shouldCreateTokenForLoadedUser() {
+			User mockUser = new User();
+			mockUser.setId(userId);
+
+			when(refreshTokenStore.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+			RefreshToken token = refreshTokenService.createRefreshToken(mockUser);
+
+			assertEquals(mockUser, token.getUser());
+			verifyNoInteractions(userRepository);
+		}
+	}
+
+	@Nested
+	@DisplayName("Tests for rotateRefreshToken")
+	class RotateRefreshToken {
+
+		@Test
+		@DisplayName("Should return the rotated token with its user")
+		void shouldRotateToken() {
+			User mockUser = new User();
+			mockUser.setId(userId);
+			RefreshToken rotated = new RefreshToken();
+			rotated.setUser(mockUser);
+
+			when(refreshTokenStore.rotate(any(SplitToken.class), any(SplitToken.class), any(Instant.class)))
+					.thenReturn(Optional.of(rotated));
+
+			RefreshToken result = refreshTokenService.rotateRefreshToken(SplitToken.generate().getValue())
+					.orElseThrow();
+
+			assertEquals(mockUser, result.getUser());
+			assertTrue(SplitToken.parse(result.getToken()).isPresent());
+			verify(refreshTokenStore, never()).save(any());
+			verifyNoInteractions(userRepository);
+		}
+
+		@Test
+		@DisplayName("Should return empty if no live token was rotated")
+		void shouldReturnEmptyIfNothingRotated() {
+			when(refreshTokenStore.rotate(any(SplitToken.class), any(SplitToken.class), any(Instant.class)))
+					.thenReturn(Optional.empty());
+
+			assertTrue(refreshTokenService.rotateRefreshToken(SplitToken.generate().getValue()).isEmpty());
+		}
+
+		@Test
+		@DisplayName("Should return empty for a malformed token without touching the store")
+		void shouldReturnEmptyForMalformedToken() {
+			assertTrue(refreshTokenService.rotateRefreshToken(null).isEmpty());
+			verifyNoInteractions(refreshTokenStore);
+		}
+
+		@Test
+		@DisplayName("Should return empty if a concurrent rotation won the race")
+		void shouldReturnEmptyIfConcurrentRotationWon() {
+			when(refreshTokenStore.rotate(any(SplitToken.class), any(SplitToken.class), any(Instant.class)))
+					.thenThrow(new CannotAcquireLockException("tuple already moved to another partition"));
+
+			assertTrue(refreshTokenService.rotateRefreshToken(SplitToken.generate().getValue()).isEmpty());
+		}
 	}
 
 	@Nested
@@ -93,25 +161,21 @@ public class RefreshTokenServiceTest {
 		@Test
 		@DisplayName("Should delete refresh tokens by user ID")
 		void shouldDeleteTokensByUserId() {
-			User mockUser = new User();
-			mockUser.setId(userId);
-
-			when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+			when(userRepository.existsById(userId)).thenReturn(true);
 
 			refreshTokenService.deleteByUserId(userId);
 
-			verify(userRepository).findById(userId);
-			verify(refreshTokenRepository).deleteByUser(mockUser);
+			verify(refreshTokenStore).deleteByUserId(userId);
 		}
 
 		@Test
 		@DisplayName("Should throw UserNotFoundException if user not found")
 		void shouldThrowUserNotFoundExceptionIfUserNotFound() {
-			when(userRepository.findById(userId)).thenReturn(Optional.empty());
+			when(userRepository.existsById(userId)).thenReturn(false);
 
 			assertThrows(UserNotFoundException.class, () -> refreshTokenService.deleteByUserId(userId));
 
-			verify(refreshTokenRepository, never()).deleteByUser(any());
+			verify(refreshTokenStore, never()).deleteByUserId(any());
 		}
 	}
 
@@ -120,29 +184,19 @@ public class RefreshTokenServiceTest {
 	class DeleteByToken {
 
 		@Test
-		@DisplayName("Should delete refresh token if token exists")
-		void shouldDeleteIfTokenExists() {
-			String tokenStr = "mock-token";
-			RefreshToken token = new RefreshToken();
-			token.setToken(tokenStr);
-
-			when(refreshTokenRepository.findByToken(tokenStr)).thenReturn(Optional.of(token));
-
-			refreshTokenService.deleteByToken(tokenStr);
+		@DisplayName("Should delete refresh token through the store")
+		void shouldDeleteToken() {
+			refreshTokenService.deleteByToken(SplitToken.generate().getValue());
 
-			verify(refreshTokenRepository).delete(token);
+			verify(refreshTokenStore).deleteByToken(any(SplitToken.class));
 		}
 
 		@Test
-		@DisplayName("Should do nothing if token does not exist")
-		void shouldDoNothingIfTokenDoesNotExist() {
-			String tokenStr = "missing-token";
-
-			when(refreshTokenRepository.findByToken(tokenStr)).thenReturn(Optional.empty());
-
-			refreshTokenService.deleteByToken(tokenStr);
+		@DisplayName("Should ignore a malformed token")
+		void shouldIgnoreMalformedToken() {
+			refreshTokenService.deleteByToken("not.a-token");
 
-			verify(refreshTokenRepository, never()).delete(any());
+			verifyNoInteractions(refreshTokenStore);
 		}
 	}
 
@@ -150,18 +204,17 @@ public class RefreshTokenServiceTest {
 	@DisplayName("Tests for verifyRefreshToken")
 	class VerifyRefreshToken {
 
-		private final String validTokenStr = "valid-token";
-		private final String expiredTokenStr = "expired-token";
-		private final String nonexistentTokenStr = "nonexistent-token";
+		private final String validTokenStr = SplitToken.generate().getValue();
+		private final String expiredTokenStr = SplitToken.generate().getValue();
+		private final String nonexistentTokenStr = SplitToken.generate().getValue();
 
 		@Test
 		@DisplayName("Should return token if it is valid and not expired")
 		void shouldReturnValidToken() {
 			RefreshToken validToken = new RefreshToken();
-			validToken.setToken(validTokenStr);
 			validToken.setExpiryDate(Instant.now().plusSeconds(3600));
 
-			when(refreshTokenRepository.findByToken(validTokenStr)).thenReturn(Optional.of(validToken));
+			when(refreshTokenStore.findByToken(any(SplitToken.class))).thenReturn(Optional.of(validToken));
 
 			RefreshToken result = refreshTokenService.verifyRefreshToken(validTokenStr);
 
@@ -173,10 +226,9 @@ public class RefreshTokenServiceTest {
 		@DisplayName("Should throw InvalidTokenException if token is expired")
 		void shouldThrowIfTokenExpired() {
 			RefreshToken expiredToken = new RefreshToken();
-			expiredToken.setToken(expiredTokenStr);
 			expiredToken.setExpiryDate(Instant.now().minusSeconds(60));
 
-			when(refreshTokenRepository.findByToken(expiredTokenStr)).thenReturn(Optional.of(expiredToken));
+			when(refreshTokenStore.findByToken(any(SplitToken.class))).thenReturn(Optional.of(expiredToken));
 
 			assertThrows(InvalidTokenException.class, () -> refreshTokenService.verifyRefreshToken(expiredTokenStr));
 		}
@@ -184,7 +236,7 @@ public class RefreshTokenServiceTest {
 		@Test
 		@DisplayName("Should throw InvalidTokenException if token is not found")
 		void shouldThrowIfTokenNotFound() {
-			when(refreshTokenRepository.findByToken(nonexistentTokenStr)).thenReturn(Optional.empty());
+			when(refreshTokenStore.findByToken(any(SplitToken.class))).thenReturn(Optional.empty());
 
 			assertThrows(InvalidTokenException.class,
 					() -> refreshTokenService.verifyRefreshToken(nonexistentTokenStr));
@@ -47,7 +47,7 @@ public class AdminUserControllerIT {
 	}
 
 	@Test
-	@DisplayName("Should fetch all users for admin")
+	@DisplayName("Should fetch a page of users for admin")
 	void shouldFetchAllUsersForAdmin() throws Exception {
 		User adminUser = TestUserFactory.randomAdminUser();
 		userRepository.save(adminUser);
@@ -61,9 +61,9 @@ public class AdminUserControllerIT {
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.status").value("SUCCESS"))
 				.andExpect(jsonPath("$.code").value(200))
-				.andExpect(jsonPath("$.message").value("Fetched all users"))
-				.andExpect(jsonPath("$.data").isArray())
-				.andExpect(jsonPath("$.data.length()").value(3));
+				.andExpect(jsonPath("$.message").value("Fetched users"))
+				.andExpect(jsonPath("$.data.users.length()").value(3))
+				.andExpect(jsonPath("$.data.nextCursor").doesNotExist());
 	}
 
 	@Test
@@ -2,8 +2,11 @@ package com.loop.api.modules.user.controller;
 
 import com.loop.api.common.constants.ApiRoutes;
 import com.loop.api.common.exception.UserNotFoundException;
+import com.loop.api.modules.user.dto.UserListRequest;
+import com.loop.api.modules.user.dto.UserPageResponse;
 import com.loop.api.modules.user.dto.UserResponse;
 import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.service.UserExportService;
 import com.loop.api.modules.user.service.UserService;
 import com.loop.api.testutils.TestUserFactory;
 import com.loop.api.testutils.TestUserResponseFactory;
@@ -11,16 +14,27 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("UnitTest")
@@ -34,6 +48,9 @@ public class AdminUserControllerTest {
 	@MockitoBean
 	private UserService userService;
 
+	@MockitoBean
+	private UserExportService userExportService;
+
 	private List<UserResponse> mockUsers;
 	private UserResponse user1;
 	private UserResponse user2;
@@ -50,38 +67,93 @@ public class AdminUserControllerTest {
 	}
 
 	@Nested
-	@DisplayName("Tests for get all users")
+	@DisplayName("Tests for listing users")
 	class GetAllUsersTest {
 
 		@Test
-		@DisplayName("Should return 200 and list of all users for admin")
-		void shouldReturnAllUsers() throws Exception {
-			when(userService.getAllUsers()).thenReturn(mockUsers);
+		@DisplayName("Should return 200 and a page of users with the next cursor")
+		void shouldReturnPageOfUsers() throws Exception {
+			when(userService.listUsers(any(UserListRequest.class))).thenReturn(new UserPageResponse(mockUsers, 2L));
 
 			mockMvc.perform(get(ApiRoutes.Admin.USERS)
 							.contentType(MediaType.APPLICATION_JSON))
 					.andExpect(status().isOk())
 					.andExpect(jsonPath("$.status").value("SUCCESS"))
 					.andExpect(jsonPath("$.code").value(200))
-					.andExpect(jsonPath("$.message").value("Fetched all users"))
-					.andExpect(jsonPath("$.data").isArray())
-					.andExpect(jsonPath("$.data.length()").value(2))
-					.andExpect(jsonPath("$.data[0].email").value(user1.getEmail()))
-					.andExpect(jsonPath("$.data[1].username").value(user2.getUsername()));
+					.andExpect(jsonPath("$.message").value("Fetched users"))
+					.andExpect(jsonPath("$.data.users.length()").value(2))
+					.andExpect(jsonPath("$.data.users[0].email").value(user1.getEmail()))
+					.andExpect(jsonPath("$.data.users[1].username").value(user2.getUsername()))
+					.andExpect(jsonPath("$.data.nextCursor").value(2));
 		}
 
 		@Test
-		@DisplayName("Should return 200 and empty list if no users exist")
-		void shouldReturnEmptyList() throws Exception {
-			when(userService.getAllUsers()).thenReturn(List.of());
+		@DisplayName("Should bind cursor, limit and filters from the query string")
+		void shouldBindQueryParameters() throws Exception {
+			when(userService.listUsers(any(UserListRequest.class))).thenReturn(new UserPageResponse(List.of(), null));
 
 			mockMvc.perform(get(ApiRoutes.Admin.USERS)
-							.contentType(MediaType.APPLICATION_JSON))
+							.param("cursor", "40")
+							.param("limit", "10")
+							.param("verified", "true")
+							.param("admin", "false")
+							.param("emailPrefix", "ali")
+							.param("usernamePrefix", "al"))
 					.andExpect(status().isOk())
-					.andExpect(jsonPath("$.status").value("SUCCESS"))
-					.andExpect(jsonPath("$.code").value(200))
-					.andExpect(jsonPath("$.data").isArray())
-					.andExpect(jsonPath("$.data.length()").value(0));
+					.andExpect(jsonPath("$.data.users").isArray())
+					.andExpect(jsonPath("$.data.users.length()").value(0))
+					.andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+			verify(userService).listUsers(argThat(request -> request.getCursor() == 40L
+					&& request.getLimit() == 10
+					&& request.getVerified()
+					&& !request.getAdmin()
+					&& request.getEmailPrefix().equals("ali")
+					&& request.getUsernamePrefix().equals("al")));
+		}
+
+		@Test
+		@DisplayName("Should return 400 for a non-positive limit")
+		void shouldRejectInvalidLimit() throws Exception {
+			mockMvc.perform(get(ApiRoutes.Admin.USERS)
+							.param("limit", "0"))
+					.andExpect(status().isBadRequest());
+
+			verifyNoInteractions(userService);
+		}
+	}
+
+	@Nested
+	@DisplayName("Tests for exporting users")
+	class ExportUsersTest {
+
+		@Test
+		@DisplayName("Should stream the export as a CSV attachment")
+		void shouldStreamCsvExport() throws Exception {
+			doAnswer(invocation -> {
+				invocation.<OutputStream>getArgument(1).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+				return 1L;
+			}).when(userExportService).export(eq(UserExportService.Format.CSV), any(OutputStream.class));
+
+			MvcResult result = mockMvc.perform(get(ApiRoutes.Admin.USERS_EXPORT).param("format", "CSV"))
+					.andExpect(request().asyncStarted())
+					.andReturn();
+
+			mockMvc.perform(asyncDispatch(result))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+					.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""))
+					.andExpect(content().string("id\n1\n"));
+		}
+
+		@Test
+		@DisplayName("Should return 400 for an unsupported format")
+		void shouldRejectUnknownFormat() throws Exception {
+			mockMvc.perform(get(ApiRoutes.Admin.USERS_EXPORT).param("format", "xml"))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value("Unsupported export format: xml"));
+
+			verifyNoInteractions(userExportService);
 		}
 	}
 
@@ -0,0 +1,82 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.modules.auth.dto.RegisterRequest;
+import com.loop.api.modules.auth.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RegisteredEmailFilterIT {
+
+	private static final String DOMAIN = "@email-filter.test";
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private RegisteredEmailFilter registeredEmailFilter;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seedUsers() {
+		jdbcTemplate.update("INSERT INTO users (email, password, username, admin, verified) " +
+				"VALUES ('seeded" + DOMAIN + "', 'hash', 'seeded-filter', FALSE, TRUE)");
+		registeredEmailFilter.rebuild();
+	}
+
+	@AfterAll
+	void removeUsers() {
+		String ids = "SELECT id FROM users WHERE email LIKE '%" + DOMAIN + "'";
+		jdbcTemplate.update("DELETE FROM verification_tokens WHERE user_id IN (" + ids + ")");
+		jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient LIKE '%" + DOMAIN + "'");
+		jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+	}
+
+	@Test
+	@DisplayName("Should answer free emails from the filter and registered ones from the database")
+	void shouldCheckEmailsThroughFilter() {
+		double absentBefore = checks("absent");
+
+		assertTrue(authService.isEmailRegistered("seeded" + DOMAIN));
+		assertFalse(authService.isEmailRegistered("free" + DOMAIN));
+
+		assertEquals(absentBefore + 1, checks("absent"));
+	}
+
+	@Test
+	@DisplayName("Should track signups and deletions without a rebuild")
+	void shouldTrackSignupAndDelete() {
+		String email = "signup" + DOMAIN;
+		assertFalse(authService.isEmailRegistered(email));
+
+		authService.registerUser(new RegisterRequest(email, "password", "signup-filter"));
+		assertTrue(authService.isEmailRegistered(email));
+
+		Long id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+		jdbcTemplate.update("DELETE FROM verification_tokens WHERE user_id = ?", id);
+		userService.deleteUser(id);
+
+		double absentBefore = checks("absent");
+		assertFalse(authService.isEmailRegistered(email));
+		assertEquals(absentBefore + 1, checks("absent"));
+	}
+
+	private double checks(String result) {
+		return meterRegistry.get("email.filter.checks").tag("result", result).counter().count();
+	}
+}
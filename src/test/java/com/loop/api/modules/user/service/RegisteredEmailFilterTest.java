@@ -0,0 +1,191 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.common.cache.RedisCacheEvictionChannel;
+import com.loop.api.common.cache.TwoLevelCacheManager;
+import com.loop.api.modules.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+public class RegisteredEmailFilterTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private Predicate<String> database;
+
+	private SimpleMeterRegistry meterRegistry;
+	private RegisteredEmailFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new RegisteredEmailFilter(userRepository, meterRegistry, true, 1000, 0.01, channel(null));
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	@DisplayName("Should ask the database until the filter has been built")
+	void shouldFallBackBeforeFirstBuild() {
+		when(database.test("a@example.com")).thenReturn(true);
+
+		assertTrue(filter.isRegistered("a@example.com", database));
+		assertEquals(1, checks("unavailable"));
+	}
+
+	@Test
+	@DisplayName("Should answer an unknown email without asking the database")
+	void shouldAnswerAbsentWithoutDatabase() {
+		rebuildWith("taken@example.com");
+
+		assertFalse(filter.isRegistered("free@example.com", database));
+		verifyNoInteractions(database);
+		assertEquals(1, checks("absent"));
+	}
+
+	@Test
+	@DisplayName("Should confirm a possible match in the database, ignoring case")
+	void shouldConfirmPossibleMatch() {
+		rebuildWith("taken@example.com");
+		when(database.test("Taken@Example.com")).thenReturn(true);
+
+		assertTrue(filter.isRegistered("Taken@Example.com", database));
+		assertEquals(1, checks("present"));
+	}
+
+	@Test
+	@DisplayName("Should count a possible match the database rejects as a false positive")
+	void shouldCountFalsePositive() {
+		rebuildWith("taken@example.com");
+		when(database.test("taken@example.com")).thenReturn(false);
+
+		assertFalse(filter.isRegistered("taken@example.com", database));
+		assertEquals(1, checks("false_positive"));
+	}
+
+	@Test
+	@DisplayName("Should apply additions and removals only after the transaction commits")
+	void shouldUpdateAfterCommit() {
+		rebuildWith("old@example.com");
+		TransactionSynchronizationManager.initSynchronization();
+
+		filter.add("new@example.com");
+		filter.remove("old@example.com");
+
+		assertFalse(filter.isRegistered("new@example.com", database));
+		when(database.test("old@example.com")).thenReturn(true);
+		assertTrue(filter.isRegistered("old@example.com", database));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		when(database.test("new@example.com")).thenReturn(true);
+
+		assertTrue(filter.isRegistered("new@example.com", database));
+		clearInvocations(database);
+		assertFalse(filter.isRegistered("old@example.com", database));
+		verifyNoInteractions(database);
+	}
+
+	@Test
+	@DisplayName("Should expose the estimated false positive probability")
+	void shouldExposeFalsePositiveProbability() {
+		assertTrue(Double.isNaN(meterRegistry.get("email.filter.false_positive_probability").gauge().value()));
+
+		rebuildWith("a@example.com", "b@example.com");
+
+		double probability = meterRegistry.get("email.filter.false_positive_probability").gauge().value();
+		assertTrue(probability > 0 && probability < 0.01);
+	}
+
+	@Test
+	@DisplayName("Should not build anything when disabled")
+	void shouldStayUnavailableWhenDisabled() {
+		filter = new RegisteredEmailFilter(userRepository, meterRegistry, false, 1000, 0.01, channel(null));
+
+		filter.rebuild();
+
+		verifyNoInteractions(userRepository);
+		filter.isRegistered("a@example.com", database);
+		verify(database).test("a@example.com");
+	}
+
+	@Test
+	@DisplayName("Should learn about a signup on another node through the eviction channel")
+	void shouldApplySignupFromOtherNode() {
+		// Two nodes whose channels deliver every published message to both, as Redis pub/sub does
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		RedisCacheEvictionChannel channelA = new RedisCacheEvictionChannel(redisTemplate, "evictions", "node-a");
+		RedisCacheEvictionChannel channelB = new RedisCacheEvictionChannel(redisTemplate, "evictions", "node-b");
+		TwoLevelCacheManager cacheManager = mock(TwoLevelCacheManager.class);
+		List<MessageListener> listeners = List.of(channelA.listener(cacheManager), channelB.listener(cacheManager));
+		doAnswer(invocation -> {
+			Message message = new DefaultMessage("evictions".getBytes(StandardCharsets.UTF_8),
+					invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8));
+			listeners.forEach(listener -> listener.onMessage(message, null));
+			return 1L;
+		}).when(redisTemplate).convertAndSend(eq("evictions"), anyString());
+
+		RegisteredEmailFilter nodeA = new RegisteredEmailFilter(userRepository, meterRegistry, true, 1000, 0.01,
+				channel(channelA));
+		RegisteredEmailFilter nodeB = new RegisteredEmailFilter(userRepository, new SimpleMeterRegistry(), true,
+				1000, 0.01, channel(channelB));
+		when(userRepository.count()).thenReturn(0L);
+		when(userRepository.streamEmails()).thenAnswer(invocation -> Stream.empty());
+		nodeA.rebuild();
+		nodeB.rebuild();
+
+		nodeA.add("Signup@Example.com");
+
+		when(database.test("signup@example.com")).thenReturn(true);
+		assertTrue(nodeB.isRegistered("signup@example.com", database));
+		assertTrue(nodeA.isRegistered("signup@example.com", database));
+		verifyNoInteractions(cacheManager);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ObjectProvider<RedisCacheEvictionChannel> channel(RedisCacheEvictionChannel channel) {
+		ObjectProvider<RedisCacheEvictionChannel> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(channel);
+		return provider;
+	}
+
+	private void rebuildWith(String... emails) {
+		when(userRepository.count()).thenReturn((long) emails.length);
+		when(userRepository.streamEmails()).thenReturn(Stream.of(emails));
+		filter.rebuild();
+	}
+
+	private double checks(String result) {
+		return meterRegistry.get("email.filter.checks").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,126 @@
+package com.loop.api.modules.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("IntegrationTest")
+// A file database of its own keeps the million rows out of the heap that the test measures
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/user-export")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UserExportIT {
+
+	private static final int USERS = 1_000_000;
+	private static final int SEED_CHUNK = 100_000;
+	// Retained heap the export may add while it runs; holding 1M users would take several hundred MB
+	private static final long MAX_RETAINED_GROWTH = 64L * 1024 * 1024;
+	// The export flushes once per 1000 rows and once at the end
+	private static final int ROWS_PER_FLUSH = 1000;
+
+	@Autowired
+	private UserExportService userExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seedUsers() {
+		for (int from = 1; from <= USERS; from += SEED_CHUNK) {
+			jdbcTemplate.update("INSERT INTO users (email, password, username, admin, verified) " +
+					"SELECT CONCAT('export', X, '@example.com'), 'hash', CONCAT('x', X), FALSE, TRUE " +
+					"FROM SYSTEM_RANGE(?, ?)", from, from + SEED_CHUNK - 1);
+		}
+	}
+
+	@Test
+	@DisplayName("Should stream a million users as NDJSON without retaining them in memory")
+	void shouldExportMillionUsersInConstantMemory() throws Exception {
+		ExportOutputStream out = new ExportOutputStream(true);
+
+		long rows = userExportService.export(UserExportService.Format.NDJSON, out);
+
+		long growth = out.maxRetained - out.baseline;
+		log.info("Exported {} users, {} MB, retained heap grew by at most {} MB", rows, out.bytes / (1024 * 1024),
+				growth / (1024 * 1024));
+		assertEquals(USERS, rows);
+		assertEquals(rows, out.lines);
+		assertTrue(out.head().startsWith("{\"id\":"));
+		assertTrue(out.flushes <= rows / ROWS_PER_FLUSH + 1, "Flushed " + out.flushes + " times");
+		assertTrue(growth < MAX_RETAINED_GROWTH, "Retained heap grew by " + growth + " bytes during the export");
+	}
+
+	@Test
+	@DisplayName("Should write a CSV header followed by one line per user")
+	void shouldExportCsv() throws Exception {
+		ExportOutputStream out = new ExportOutputStream(false);
+
+		long rows = userExportService.export(UserExportService.Format.CSV, out);
+
+		assertTrue(out.head().startsWith("id,email,mobile,username,admin,profileUrl\n"));
+		assertTrue(out.head().contains(",export1@example.com,,x1,false,\n"));
+		assertEquals(rows + 1, out.lines);
+		assertTrue(out.flushes <= rows / ROWS_PER_FLUSH + 1, "Flushed " + out.flushes + " times");
+	}
+
+	/**
+	 * Counts output and flushes and keeps only its first bytes. When sampling, it forces a GC every 100k lines and records the
+	 * live heap, so that anything the export holds on to shows up as growth over the baseline taken up front.
+	 */
+	private static class ExportOutputStream extends OutputStream {
+
+		private final boolean sampleHeap;
+		private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+		private final long baseline;
+		private long maxRetained;
+		private long bytes;
+		private long lines;
+		private long flushes;
+
+		ExportOutputStream(boolean sampleHeap) {
+			this.sampleHeap = sampleHeap;
+			this.baseline = sampleHeap ? retainedHeap() : 0;
+			this.maxRetained = baseline;
+		}
+
+		String head() {
+			return head.toString(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void write(int b) {
+			if (bytes++ < 256) {
+				head.write(b);
+			}
+			if (b == '\n' && ++lines % 100_000 == 0 && sampleHeap) {
+				maxRetained = Math.max(maxRetained, retainedHeap());
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				write(b[i]);
+			}
+		}
+
+		@Override
+		public void flush() {
+			flushes++;
+		}
+
+		private static long retainedHeap() {
+			System.gc();
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+}
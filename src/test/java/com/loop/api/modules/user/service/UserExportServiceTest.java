@@ -0,0 +1,38 @@
+package com.loop.api.modules.user.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class UserExportServiceTest {
+
+	@Test
+	@DisplayName("Should quote CSV cells containing separators, quotes or line breaks")
+	void shouldQuoteSpecialCharacters() {
+		assertEquals("plain", UserExportService.csvCell("plain"));
+		assertEquals("\"a,b\"", UserExportService.csvCell("a,b"));
+		assertEquals("\"say \"\"hi\"\"\"", UserExportService.csvCell("say \"hi\""));
+		assertEquals("\"two\nlines\"", UserExportService.csvCell("two\nlines"));
+		assertEquals("", UserExportService.csvCell(null));
+	}
+
+	@Test
+	@DisplayName("Should neutralise spreadsheet formulas but keep phone numbers")
+	void shouldNeutraliseFormulas() {
+		assertEquals("'=1+2", UserExportService.csvCell("=1+2"));
+		assertEquals("'@SUM(A1)", UserExportService.csvCell("@SUM(A1)"));
+		assertEquals("'+1+cmd", UserExportService.csvCell("+1+cmd"));
+		assertEquals("+15551234567", UserExportService.csvCell("+15551234567"));
+	}
+
+	@Test
+	@DisplayName("Should accept export formats case-insensitively and reject others")
+	void shouldParseFormat() {
+		assertEquals(UserExportService.Format.CSV, UserExportService.Format.fromParameter("CSV"));
+		assertEquals(UserExportService.Format.NDJSON, UserExportService.Format.fromParameter("ndjson"));
+		assertThrows(IllegalArgumentException.class, () -> UserExportService.Format.fromParameter("xml"));
+	}
+}
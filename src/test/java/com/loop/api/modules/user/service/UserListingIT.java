@@ -0,0 +1,134 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.modules.user.dto.UserListRequest;
+import com.loop.api.modules.user.dto.UserPageResponse;
+import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("IntegrationTest")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UserListingIT {
+
+	private static final int USERS = 50_000;
+	private static final int PAGE_SIZE = 50;
+	private static final String DOMAIN = "@listing.test";
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long firstId;
+
+	@BeforeAll
+	void seedUsers() {
+		List<Object[]> rows = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			rows.add(new Object[]{"user" + i + DOMAIN, "hash", "u" + i, i % 100 == 0, i % 2 == 0});
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO users (email, password, username, admin, verified) VALUES (?, ?, ?, ?, ?)", rows);
+		firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE '%" + DOMAIN + "'",
+				Long.class);
+	}
+
+	@AfterAll
+	void removeUsers() {
+		jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+	}
+
+	@Test
+	@DisplayName("Should visit every matching user exactly once when following next cursors")
+	void shouldPageThroughFilteredUsers() {
+		UserListRequest request = new UserListRequest();
+		request.setAdmin(true);
+		request.setVerified(true);
+		request.setEmailPrefix("user");
+		request.setLimit(7);
+		Set<Long> seen = new HashSet<>();
+		int pages = 0;
+
+		UserPageResponse page;
+		do {
+			page = userService.listUsers(request);
+			for (UserResponse user : page.getUsers()) {
+				assertTrue(user.isAdmin());
+				assertTrue(seen.add(user.getId()));
+			}
+			request.setCursor(page.getNextCursor());
+			pages++;
+		} while (page.getNextCursor() != null);
+
+		// Every 100th user is an admin, and all of those have an even index so are verified
+		assertEquals(USERS / 100, seen.size());
+		assertEquals((USERS / 100 + 6) / 7, pages);
+	}
+
+	@Test
+	@DisplayName("Should treat LIKE wildcards in a prefix literally")
+	void shouldEscapePrefixWildcards() {
+		UserListRequest request = new UserListRequest();
+		request.setUsernamePrefix("u_");
+
+		assertTrue(userService.listUsers(request).getUsers().isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should fetch a deep page about as fast as the first")
+	void shouldKeepLatencyFlatWithDepth() {
+		long deepCursor = firstId + USERS - 2 * PAGE_SIZE;
+		int deepPage = (USERS - 2 * PAGE_SIZE) / PAGE_SIZE;
+
+		double firstKeyset = averageMillis(() -> userService.listUsers(keysetRequest(firstId)));
+		double deepKeyset = averageMillis(() -> userService.listUsers(keysetRequest(deepCursor)));
+		double deepOffset = averageMillis(() ->
+				userRepository.findAll(PageRequest.of(deepPage, PAGE_SIZE, Sort.by("id"))));
+		log.info("Admin user listing over {} users: keyset first page {} ms, keyset page {} {} ms, offset page {} {} ms",
+				USERS, String.format("%.2f", firstKeyset), deepPage, String.format("%.2f", deepKeyset), deepPage,
+				String.format("%.2f", deepOffset));
+
+		assertEquals(PAGE_SIZE, userService.listUsers(keysetRequest(deepCursor)).getUsers().size());
+		// Generous bounds: the point is that cost does not grow with depth, not the exact figure
+		assertTrue(deepKeyset < 3 * firstKeyset + 5, "A deep keyset page should cost about as much as the first");
+	}
+
+	private static UserListRequest keysetRequest(long cursor) {
+		UserListRequest request = new UserListRequest();
+		request.setCursor(cursor);
+		request.setLimit(PAGE_SIZE);
+		return request;
+	}
+
+	private static double averageMillis(Supplier<?> query) {
+		for (int i = 0; i < 20; i++) {
+			query.get();
+		}
+		int runs = 50;
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			query.get();
+		}
+		return (System.nanoTime() - start) / 1_000_000.0 / runs;
+	}
+}
@@ -0,0 +1,136 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.modules.user.dto.UserResponse;
+import com.loop.api.modules.user.mapper.UserMapper;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.modules.user.repository.UserSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("IntegrationTest")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UserProjectionIT {
+
+	private static final int USERS = 500;
+	private static final int PAGE_SIZE = 50;
+	private static final String DOMAIN = "@projection.test";
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserMapper userMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate readOnly;
+	private long firstId;
+
+	@BeforeAll
+	void seedUsers() {
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		List<Object[]> rows = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			rows.add(new Object[]{"p" + i + DOMAIN, "$2a$10$hash", "p" + i, "+1555000" + (1000 + i), i % 2 == 0});
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO users (email, password, username, mobile, admin, verified) VALUES (?, ?, ?, ?, ?, TRUE)",
+				rows);
+		firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE '%" + DOMAIN + "'",
+				Long.class);
+	}
+
+	@AfterAll
+	void removeUsers() {
+		jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+	}
+
+	@Test
+	@DisplayName("Should read the same user through the projection as through the entity")
+	void shouldMatchEntityMapping() {
+		UserResponse fromEntity = readOnly.execute(status ->
+				userMapper.toUserResponse(userRepository.findById(firstId).orElseThrow()));
+		UserResponse fromProjection = readOnly.execute(status ->
+				userRepository.findResponseById(firstId).orElseThrow());
+
+		assertNotNull(fromEntity);
+		assertNotNull(fromProjection);
+		assertEquals(fromEntity.getId(), fromProjection.getId());
+		assertEquals(fromEntity.getEmail(), fromProjection.getEmail());
+		assertEquals(fromEntity.getMobile(), fromProjection.getMobile());
+		assertEquals(fromEntity.getUsername(), fromProjection.getUsername());
+		assertEquals(fromEntity.isAdmin(), fromProjection.isAdmin());
+		assertEquals(fromEntity.getProfileUrl(), fromProjection.getProfileUrl());
+	}
+
+	@Test
+	@DisplayName("Should allocate less per page reading projections than hydrating entities")
+	void shouldAllocateLessThanEntities() {
+		Supplier<List<UserResponse>> entities = () -> readOnly.execute(status -> {
+			List<User> users = userRepository.findBy(UserSpecifications.idAfter(firstId - 1),
+					query -> query.sortBy(Sort.by("id")).limit(PAGE_SIZE).all());
+			return userMapper.toUserResponseList(users);
+		});
+		Supplier<List<UserResponse>> projections = () -> readOnly.execute(status ->
+				userRepository.findResponses(UserSpecifications.idAfter(firstId - 1), PAGE_SIZE));
+		Supplier<UserResponse> entityById = () -> readOnly.execute(status ->
+				userMapper.toUserResponse(userRepository.findById(firstId).orElseThrow()));
+		Supplier<UserResponse> projectionById = () -> readOnly.execute(status ->
+				userRepository.findResponseById(firstId).orElseThrow());
+
+		Cost pageEntities = measure(entities);
+		Cost pageProjections = measure(projections);
+		Cost oneEntity = measure(entityById);
+		Cost oneProjection = measure(projectionById);
+		log.info("Page of {} users: entities {}, projections {}", PAGE_SIZE, pageEntities, pageProjections);
+		log.info("User by ID: entity {}, projection {}", oneEntity, oneProjection);
+
+		assertEquals(PAGE_SIZE, projections.get().size());
+		assertTrue(pageProjections.bytes < pageEntities.bytes,
+				"Projections should allocate less than entities: " + pageProjections + " vs " + pageEntities);
+	}
+
+	private record Cost(long bytes, double millis) {
+		@Override
+		public String toString() {
+			return String.format("%d KB, %.3f ms", bytes / 1024, millis);
+		}
+	}
+
+	private static Cost measure(Supplier<?> read) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < 200; i++) {
+			read.get();
+		}
+		int runs = 500;
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			read.get();
+		}
+		double millis = (System.nanoTime() - start) / 1_000_000.0 / runs;
+		return new Cost((threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / runs, millis);
+	}
+}
@@ -3,9 +3,12 @@ package com.loop.api.modules.user.service;
 import com.loop.api.common.exception.UserAlreadyExistsException;
 import com.loop.api.common.exception.UserNotFoundException;
 import com.loop.api.modules.user.dto.UpdateUserProfileRequest;
+import com.loop.api.modules.user.dto.UserListRequest;
+import com.loop.api.modules.user.dto.UserPageResponse;
 import com.loop.api.modules.user.dto.UserResponse;
 import com.loop.api.modules.user.mapper.UserMapper;
 import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UniqueUserFields;
 import com.loop.api.modules.user.repository.UserRepository;
 import com.loop.api.testutils.TestUserFactory;
 import com.loop.api.testutils.TestUserResponseFactory;
@@ -14,11 +17,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @Tag("UnitTest")
@@ -31,10 +39,15 @@ public class UserServiceTest {
 	@Mock
 	private UserMapper userMapper;
 
+	@Mock
+	private UserCacheService userCacheService;
+
+	@Mock
+	private RegisteredEmailFilter registeredEmailFilter;
+
 	@InjectMocks
 	private UserService userService;
 
-	private List<User> mockUsers;
 	private List<UserResponse> mockResponses;
 
 	private UserResponse response1;
@@ -44,7 +57,6 @@ public class UserServiceTest {
 	void setUp() {
 		User user1 = TestUserFactory.regularUser(1L);
 		User user2 = TestUserFactory.adminUser(2L);
-		mockUsers = List.of(user1, user2);
 
 		response1 = TestUserResponseFactory.fromUser(user1);
 		response2 = TestUserResponseFactory.fromUser(user2);
@@ -52,22 +64,60 @@ public class UserServiceTest {
 	}
 
 	@Nested
-	@DisplayName("Tests for get all users")
-	class GetAllUsersTest {
+	@DisplayName("Tests for listing users")
+	class ListUsersTest {
+
+		@BeforeEach
+		void setPageSizes() {
+			ReflectionTestUtils.setField(userService, "defaultPageSize", 2);
+			ReflectionTestUtils.setField(userService, "maxPageSize", 3);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void returnUsers(List<UserResponse> users) {
+			when(userRepository.findResponses(any(Specification.class), anyInt())).thenReturn(users);
+		}
+
 		@Test
-		@DisplayName("Should return list of all users")
-		void shouldReturnAllUsers() {
-			when(userRepository.findAll()).thenReturn(mockUsers);
-			when(userMapper.toUserResponseList(mockUsers)).thenReturn(mockResponses);
+		@DisplayName("Should return the last page without a next cursor")
+		void shouldReturnLastPage() {
+			returnUsers(mockResponses);
 
-			List<UserResponse> result = userService.getAllUsers();
+			UserPageResponse result = userService.listUsers(new UserListRequest());
 
-			assertEquals(2, result.size());
-			assertEquals(response1.getEmail(), result.get(0).getEmail());
-			assertEquals(response2.getUsername(), result.get(1).getUsername());
+			assertEquals(2, result.getUsers().size());
+			assertEquals(response1.getEmail(), result.getUsers().get(0).getEmail());
+			assertNull(result.getNextCursor());
+			verifyNoInteractions(userMapper);
+		}
+
+		@Test
+		@DisplayName("Should trim the look-ahead row and return the last ID as next cursor")
+		@SuppressWarnings("unchecked")
+		void shouldReturnNextCursorWhenMoreRowsExist() {
+			UserResponse response3 = TestUserResponseFactory.fromUser(TestUserFactory.regularUser(3L));
+			returnUsers(List.of(response1, response2, response3));
+
+			UserPageResponse result = userService.listUsers(new UserListRequest());
 
-			verify(userRepository).findAll();
-			verify(userMapper).toUserResponseList(mockUsers);
+			assertEquals(2, result.getUsers().size());
+			assertEquals(2L, result.getNextCursor());
+			verify(userRepository).findResponses(any(Specification.class), eq(3));
+		}
+
+		@Test
+		@DisplayName("Should cap the requested limit at the maximum page size")
+		@SuppressWarnings("unchecked")
+		void shouldCapLimit() {
+			returnUsers(List.of());
+			UserListRequest request = new UserListRequest();
+			request.setLimit(1000);
+
+			UserPageResponse result = userService.listUsers(request);
+
+			assertTrue(result.getUsers().isEmpty());
+			assertNull(result.getNextCursor());
+			verify(userRepository).findResponses(any(Specification.class), eq(4));
 		}
 	}
 
@@ -80,8 +130,7 @@ public class UserServiceTest {
 			User user = TestUserFactory.regularUser(1L);
 			UserResponse expectedResponse = TestUserResponseFactory.fromUser(user);
 
-			when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-			when(userMapper.toUserResponse(user)).thenReturn(expectedResponse);
+			when(userRepository.findResponseById(1L)).thenReturn(Optional.of(expectedResponse));
 
 			UserResponse result = userService.getUserById(1L);
 
@@ -89,22 +138,22 @@ public class UserServiceTest {
 			assertEquals(expectedResponse.getEmail(), result.getEmail());
 			assertEquals(expectedResponse.getUsername(), result.getUsername());
 
-			verify(userRepository).findById(1L);
-			verify(userMapper).toUserResponse(user);
+			verify(userRepository).findResponseById(1L);
+			verify(userRepository, never()).findById(any());
 		}
 
 		@Test
 		@DisplayName("Should throw UserNotFoundException when user does not exist")
 		void shouldThrowWhenUserNotFound() {
 			Long missingId = 999L;
-			when(userRepository.findById(missingId)).thenReturn(Optional.empty());
+			when(userRepository.findResponseById(missingId)).thenReturn(Optional.empty());
 
 			UserNotFoundException ex = assertThrows(UserNotFoundException.class, () -> {
 				userService.getUserById(missingId);
 			});
 
 			assertEquals("User not found with id: 999", ex.getMessage());
-			verify(userRepository).findById(missingId);
+			verify(userRepository).findResponseById(missingId);
 			verifyNoInteractions(userMapper);
 		}
 	}
@@ -117,6 +166,7 @@ public class UserServiceTest {
 		@DisplayName("Should update user profile and return updated response")
 		void shouldUpdateUserProfileSuccessfully() {
 			User existingUser = TestUserFactory.regularUser(1L);
+			String oldEmail = existingUser.getEmail();
 			UpdateUserProfileRequest request = new UpdateUserProfileRequest();
 			request.setEmail("new@example.com");
 			request.setMobile("9876543210");
@@ -132,7 +182,7 @@ public class UserServiceTest {
 			UserResponse expectedResponse = TestUserResponseFactory.fromUser(updatedUser);
 
 			when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
-			when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+			when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 			when(userMapper.toUserResponse(updatedUser)).thenReturn(expectedResponse);
 
 			UserResponse result = userService.updateUserProfile(1L, request);
@@ -142,8 +192,10 @@ public class UserServiceTest {
 			assertEquals(expectedResponse.getProfileUrl(), result.getProfileUrl());
 
 			verify(userRepository).findById(1L);
-			verify(userRepository).save(existingUser);
+			verify(userRepository).saveAndFlush(existingUser);
 			verify(userMapper).toUserResponse(updatedUser);
+			verify(registeredEmailFilter).remove(oldEmail);
+			verify(registeredEmailFilter).add("new@example.com");
 		}
 
 		@Test
@@ -159,13 +211,13 @@ public class UserServiceTest {
 			UserResponse expected = TestUserResponseFactory.fromUser(updatedUser);
 
 			when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
-			when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+			when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 			when(userMapper.toUserResponse(updatedUser)).thenReturn(expected);
 
 			UserResponse result = userService.updateUserProfile(1L, request);
 
 			assertEquals(expected.getEmail(), result.getEmail());
-			verify(userRepository).save(existingUser);
+			verify(userRepository).saveAndFlush(existingUser);
 		}
 
 		@Test
@@ -177,14 +229,14 @@ public class UserServiceTest {
 			UserResponse expected = TestUserResponseFactory.fromUser(existingUser);
 
 			when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
-			when(userRepository.save(any(User.class))).thenReturn(existingUser);
+			when(userRepository.saveAndFlush(any(User.class))).thenReturn(existingUser);
 			when(userMapper.toUserResponse(existingUser)).thenReturn(expected);
 
 			UserResponse result = userService.updateUserProfile(1L, request);
 
 			assertEquals(expected.getEmail(), result.getEmail());
 			assertEquals(expected.getUsername(), result.getUsername());
-			verify(userRepository).save(existingUser);
+			verify(userRepository).saveAndFlush(existingUser);
 		}
 
 		@Test
@@ -200,7 +252,7 @@ public class UserServiceTest {
 			});
 
 			verify(userRepository).findById(1L);
-			verify(userRepository, never()).save(any());
+			verify(userRepository, never()).saveAndFlush(any());
 			verifyNoInteractions(userMapper);
 		}
 
@@ -213,18 +265,16 @@ public class UserServiceTest {
 			request.setMobile("1234567890");
 
 			when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
-			when(userRepository.findByMobile("1234567890"))
-					.thenReturn(Optional.of(new User() {{
-						setId(2L);
-					}})); // Simulate another user with same mobile
+			when(userRepository.findUniqueFieldConflicts(null, null, "1234567890", 1L))
+					.thenReturn(List.of(new UniqueUserFields("other@example.com", "other", "1234567890")));
 
 			assertThrows(UserAlreadyExistsException.class, () -> {
 				userService.updateUserProfile(1L, request);
 			});
 
 			verify(userRepository).findById(1L);
-			verify(userRepository).findByMobile("1234567890");
-			verify(userRepository, never()).save(any());
+			verify(userRepository).findUniqueFieldConflicts(null, null, "1234567890", 1L);
+			verify(userRepository, never()).saveAndFlush(any());
 			verifyNoInteractions(userMapper);
 		}
 
@@ -243,17 +293,17 @@ public class UserServiceTest {
 			UserResponse expected = TestUserResponseFactory.fromUser(existingUser);
 
 			when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
-			when(userRepository.findByEmail(existingUser.getEmail())).thenReturn(Optional.of(existingUser));
-			when(userRepository.findByUsername(existingUser.getUsername())).thenReturn(Optional.of(existingUser));
-			when(userRepository.findByMobile(existingUser.getMobile())).thenReturn(Optional.of(existingUser));
-			when(userRepository.save(existingUser)).thenReturn(existingUser);
+			// The user's own row is excluded, so the combined query finds nothing
+			when(userRepository.findUniqueFieldConflicts(existingUser.getEmail(), existingUser.getUsername(),
+					existingUser.getMobile(), 1L)).thenReturn(List.of());
+			when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
 			when(userMapper.toUserResponse(existingUser)).thenReturn(expected);
 
 			UserResponse result = userService.updateUserProfile(1L, request);
 
 			assertEquals(expected.getEmail(), result.getEmail());
 			assertEquals(expected.getUsername(), result.getUsername());
-			verify(userRepository).save(existingUser);
+			verify(userRepository).saveAndFlush(existingUser);
 		}
 	}
 
@@ -271,6 +321,8 @@ public class UserServiceTest {
 			userService.deleteUser(1L);
 
 			verify(userRepository).findById(1L);
+			verify(userCacheService).evict(existingUser);
+			verify(registeredEmailFilter).remove(existingUser.getEmail());
 			verify(userRepository).delete(existingUser);
 		}
 
@@ -282,7 +334,7 @@ public class UserServiceTest {
 			assertThrows(UserNotFoundException.class, () -> userService.deleteUser(1L));
 
 			verify(userRepository).findById(1L);
-			verify(userRepository, never()).delete(any());
+			verify(userRepository, never()).delete(any(User.class));
 		}
 	}
 }
\ No newline at end of file
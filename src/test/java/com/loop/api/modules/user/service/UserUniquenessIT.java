@@ -0,0 +1,132 @@
+package com.loop.api.modules.user.service;
+
+import com.loop.api.common.exception.UserAlreadyExistsException;
+import com.loop.api.common.util.UserValidationUtil;
+import com.loop.api.modules.auth.dto.RegisterRequest;
+import com.loop.api.modules.auth.service.AuthService;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UserUniquenessIT {
+
+	private static final String DOMAIN = "@uniqueness.test";
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long existingId;
+
+	@BeforeAll
+	void seedUser() {
+		jdbcTemplate.update("INSERT INTO users (email, password, username, mobile, admin, verified) " +
+				"VALUES ('taken" + DOMAIN + "', 'hash', 'taken', '+15550001111', FALSE, TRUE)");
+		existingId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'taken'", Long.class);
+	}
+
+	@AfterAll
+	void removeUsers() {
+		String ids = "SELECT id FROM users WHERE email LIKE '%" + DOMAIN + "'";
+		jdbcTemplate.update("DELETE FROM verification_tokens WHERE user_id IN (" + ids + ")");
+		jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient LIKE '%" + DOMAIN + "'");
+		jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+	}
+
+	@Test
+	@DisplayName("Should report every conflicting field from one query")
+	void shouldReportAllConflicts() {
+		UserAlreadyExistsException ex = assertThrows(UserAlreadyExistsException.class, () ->
+				UserValidationUtil.validateUniqueUserFields("taken" + DOMAIN, "taken", "+15550001111",
+						userRepository, null));
+
+		assertEquals(List.of("email", "username", "mobile"), List.copyOf(ex.getConflicts().keySet()));
+	}
+
+	@Test
+	@DisplayName("Should not report the user's own values as conflicts")
+	void shouldExcludeOwnRow() {
+		assertDoesNotThrow(() -> UserValidationUtil.validateUniqueUserFields("taken" + DOMAIN, "taken",
+				"+15550001111", userRepository, existingId));
+	}
+
+	@Test
+	@DisplayName("Should translate a unique constraint violation to the conflicting field")
+	void shouldTranslateConstraintViolation() {
+		User duplicate = new User();
+		duplicate.setEmail("other" + DOMAIN);
+		duplicate.setUsername("other");
+		duplicate.setPassword("hash");
+		duplicate.setMobile("+15550001111");
+
+		DataIntegrityViolationException violation = assertThrows(DataIntegrityViolationException.class,
+				() -> userRepository.saveAndFlush(duplicate));
+		RuntimeException translated = UserValidationUtil.translateUniqueViolation(violation,
+				duplicate.getEmail(), duplicate.getUsername(), duplicate.getMobile());
+
+		UserAlreadyExistsException ex = assertInstanceOf(UserAlreadyExistsException.class, translated);
+		assertEquals(Map.of("mobile", "User with mobile '+15550001111' already exists."), ex.getConflicts());
+	}
+
+	@Test
+	@DisplayName("Should let exactly one of several concurrent signups for the same email through")
+	void shouldRejectConcurrentDuplicateSignups() throws Exception {
+		int signups = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Callable<String>> attempts = new ArrayList<>();
+		for (int i = 0; i < signups; i++) {
+			RegisterRequest request = new RegisterRequest("race" + DOMAIN, "password", "racer" + i);
+			attempts.add(() -> {
+				start.await();
+				return authService.registerUser(request);
+			});
+		}
+
+		int registered = 0;
+		int conflicts = 0;
+		try (ExecutorService executor = Executors.newFixedThreadPool(signups)) {
+			List<Future<String>> results = new ArrayList<>();
+			for (Callable<String> attempt : attempts) {
+				results.add(executor.submit(attempt));
+			}
+			start.countDown();
+			for (Future<String> result : results) {
+				try {
+					result.get();
+					registered++;
+				} catch (ExecutionException e) {
+					assertInstanceOf(UserAlreadyExistsException.class, e.getCause());
+					assertEquals("User with email 'race" + DOMAIN + "' already exists.", e.getCause().getMessage());
+					conflicts++;
+				}
+			}
+		}
+
+		assertEquals(1, registered);
+		assertEquals(signups - 1, conflicts);
+	}
+}
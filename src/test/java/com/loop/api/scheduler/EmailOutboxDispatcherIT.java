@@ -0,0 +1,150 @@
+package com.loop.api.scheduler;
+
+import com.loop.api.modules.auth.model.OutboxEmail;
+import com.loop.api.modules.auth.repository.OutboxEmailRepository;
+import com.loop.api.modules.auth.service.EmailOutboxService;
+import com.loop.api.modules.auth.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = {
+		"app.email.outbox.dispatcher-enabled=true",
+		"app.email.outbox.poll-interval=1h"
+})
+public class EmailOutboxDispatcherIT {
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	@Autowired
+	private EmailOutboxService emailOutboxService;
+
+	@Autowired
+	private OutboxEmailRepository outboxEmailRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	@BeforeEach
+	void setUp() {
+		outboxEmailRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Should refuse to enqueue an email outside a transaction")
+	void shouldRequireTransaction() {
+		assertThrows(IllegalTransactionStateException.class,
+				() -> emailOutboxService.enqueueVerificationEmail("a@example.com", "a", "token"));
+	}
+
+	@Test
+	@DisplayName("Should send due emails and remove them from the outbox")
+	void shouldSendAndDelete() throws Exception {
+		transactionTemplate.executeWithoutResult(status -> {
+			emailOutboxService.enqueueVerificationEmail("a@example.com", "a", "token-a");
+			emailOutboxService.enqueueResetPasswordEmail("b@example.com", "b", "123456");
+		});
+
+		dispatcher.dispatch();
+
+		verify(emailService).sendVerificationEmail("a@example.com", "a", "token-a");
+		verify(emailService).sendResetPasswordEmail("b@example.com", "b", "123456");
+		assertEquals(0, outboxEmailRepository.count());
+		assertEquals(0.0, meterRegistry.get("email.outbox.depth").gauge().value());
+	}
+
+	@Test
+	@DisplayName("Should keep a failed email for a later attempt with backoff")
+	void shouldRetryLaterOnFailure() throws Exception {
+		doThrow(new MailSendException("SMTP down")).when(emailService)
+				.sendVerificationEmail(anyString(), anyString(), anyString());
+		transactionTemplate.executeWithoutResult(status ->
+				emailOutboxService.enqueueVerificationEmail("a@example.com", "a", "token-a"));
+
+		dispatcher.dispatch();
+		dispatcher.dispatch();
+
+		verify(emailService, times(1)).sendVerificationEmail(anyString(), anyString(), anyString());
+		List<OutboxEmail> emails = outboxEmailRepository.findAll();
+		assertEquals(1, emails.size());
+		assertEquals(OutboxEmail.Status.PENDING, emails.getFirst().getStatus());
+		assertEquals(1, emails.getFirst().getAttempts());
+		assertEquals("SMTP down", emails.getFirst().getLastError());
+		assertFalse(emails.getFirst().getSecret().contains("token-a"));
+		assertTrue(emails.getFirst().getNextAttemptAt().isAfter(Instant.now()));
+	}
+
+	@Test
+	@DisplayName("Should not hand the same email to two concurrent claims")
+	void shouldSkipLockedRows() {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < 4; i++) {
+				emailOutboxService.enqueueVerificationEmail(i + "@example.com", "u", "t" + i);
+			}
+		});
+
+		List<OutboxEmail> first = transactionTemplate.execute(status -> {
+			List<OutboxEmail> claimed = outboxEmailRepository.lockDue(Instant.now(), 2);
+			// While these rows stay locked, a claim from another transaction must pass over them
+			List<OutboxEmail> second = CompletableFuture.supplyAsync(() -> emailOutboxService.claimDue(10)).join();
+			// H2 applies LIMIT before skipping locked rows, so only the absence of overlap is portable
+			second.forEach(email -> assertFalse(claimed.stream().anyMatch(c -> c.getId().equals(email.getId()))));
+			return claimed;
+		});
+
+		assertEquals(2, first.size());
+	}
+
+	@Test
+	@DisplayName("Should count emails given up on and purge them once past the retention")
+	void shouldCountAndPurgeFailedEmails() {
+		Instant now = Instant.now();
+		failedEmail("old@example.com", now.minus(Duration.ofDays(8)));
+		failedEmail("recent@example.com", now.minus(Duration.ofDays(1)));
+
+		assertEquals(2.0, meterRegistry.get("email.outbox.dead_letters").gauge().value());
+
+		int deleted = outboxEmailRepository.deleteFailedChunk(now.minus(Duration.ofDays(7)), 10);
+
+		assertEquals(1, deleted);
+		assertEquals("recent@example.com", outboxEmailRepository.findAll().getFirst().getRecipient());
+		assertEquals(1.0, meterRegistry.get("email.outbox.dead_letters").gauge().value());
+	}
+
+	private void failedEmail(String recipient, Instant createdAt) {
+		OutboxEmail email = new OutboxEmail();
+		email.setType(OutboxEmail.Type.VERIFICATION);
+		email.setRecipient(recipient);
+		email.setStatus(OutboxEmail.Status.FAILED);
+		email.setAttempts(8);
+		email.setCreatedAt(createdAt);
+		email.setNextAttemptAt(createdAt);
+		email.setLastError("SMTP down");
+		outboxEmailRepository.save(email);
+	}
+}
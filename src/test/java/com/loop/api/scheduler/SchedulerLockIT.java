@@ -0,0 +1,122 @@
+package com.loop.api.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("IntegrationTest")
+@SpringBootTest
+public class SchedulerLockIT {
+
+	private static final String JOB = "testJob";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM scheduler_locks");
+	}
+
+	@Test
+	@DisplayName("Should not run a job on a second node while the first holds the lock")
+	void shouldExcludeOtherNodeWhileRunning() {
+		SchedulerLock nodeA = lock("node-a", Duration.ofMinutes(10), Duration.ZERO);
+		SchedulerLock nodeB = lock("node-b", Duration.ofMinutes(10), Duration.ZERO);
+		AtomicBoolean ranOnB = new AtomicBoolean();
+
+		boolean ranOnA = nodeA.runExclusively(JOB, () -> nodeB.runExclusively(JOB, () -> ranOnB.set(true)));
+
+		assertTrue(ranOnA);
+		assertFalse(ranOnB.get());
+		assertTrue(nodeB.runExclusively(JOB, () -> ranOnB.set(true)));
+		assertTrue(ranOnB.get());
+	}
+
+	@Test
+	@DisplayName("Should keep the lock for the minimum hold after the job finishes")
+	void shouldHoldLockForMinimumHold() {
+		SchedulerLock nodeA = lock("node-a", Duration.ofMinutes(10), Duration.ofMinutes(1));
+		SchedulerLock nodeB = lock("node-b", Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+		assertTrue(nodeA.runExclusively(JOB, () -> { }));
+		assertFalse(nodeB.runExclusively(JOB, () -> { }));
+		assertEquals("node-a", nodeB.findAll().getFirst().lockedBy());
+	}
+
+	@Test
+	@DisplayName("Should take over a lock whose lease has expired")
+	void shouldTakeOverExpiredLease() {
+		SchedulerLock crashed = lock("node-a", Duration.ZERO, Duration.ZERO);
+		SchedulerLock nodeB = lock("node-b", Duration.ofMinutes(10), Duration.ZERO);
+		AtomicBoolean ranOnB = new AtomicBoolean();
+
+		// The lease expires immediately, as if node-a had died mid-run
+		crashed.runExclusively(JOB, () -> nodeB.runExclusively(JOB, () -> ranOnB.set(true)));
+
+		assertTrue(ranOnB.get());
+	}
+
+	@Test
+	@DisplayName("Should keep the lock past its lease while the task renews it")
+	void shouldHoldLockWhileRenewing() throws Exception {
+		SchedulerLock nodeA = lock("node-a", Duration.ofMillis(500), Duration.ZERO);
+		SchedulerLock nodeB = lock("node-b", Duration.ofMinutes(10), Duration.ZERO);
+		AtomicBoolean ranOnB = new AtomicBoolean();
+		AtomicBoolean renewed = new AtomicBoolean(true);
+
+		nodeA.runExclusivelyWithLease(JOB, lease -> {
+			// Runs for three leases, renewing twice per lease
+			for (int i = 0; i < 6; i++) {
+				sleep(250);
+				renewed.compareAndSet(true, lease.renew());
+			}
+			nodeB.runExclusively(JOB, () -> ranOnB.set(true));
+		});
+
+		assertTrue(renewed.get());
+		assertFalse(ranOnB.get());
+	}
+
+	@Test
+	@DisplayName("Should tell a task that outlived its lease that the lock was taken over")
+	void shouldReportLostLease() {
+		SchedulerLock nodeA = lock("node-a", Duration.ofMillis(100), Duration.ZERO);
+		SchedulerLock nodeB = lock("node-b", Duration.ofMinutes(10), Duration.ZERO);
+		AtomicBoolean ranOnB = new AtomicBoolean();
+		AtomicBoolean renewed = new AtomicBoolean(true);
+
+		nodeA.runExclusivelyWithLease(JOB, lease -> {
+			sleep(300);
+			nodeB.runExclusively(JOB, () -> {
+				ranOnB.set(true);
+				renewed.set(lease.renew());
+			});
+		});
+
+		assertTrue(ranOnB.get());
+		assertFalse(renewed.get());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private SchedulerLock lock(String nodeId, Duration lease, Duration minHold) {
+		return new SchedulerLock(jdbcTemplate, nodeId, lease, minHold);
+	}
+}
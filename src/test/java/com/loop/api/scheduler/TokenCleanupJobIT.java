@@ -1,5 +1,6 @@
 package com.loop.api.scheduler;
 
+import com.loop.api.common.util.SplitToken;
 import com.loop.api.modules.auth.model.PasswordResetCode;
 import com.loop.api.modules.auth.model.RefreshToken;
 import com.loop.api.modules.auth.model.VerificationToken;
@@ -22,6 +23,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Tag("IntegrationTest")
@@ -59,13 +61,13 @@ public class TokenCleanupJobIT {
 
 		// Expired token (yesterday)
 		RefreshToken expired = new RefreshToken();
-		expired.setToken("expired123");
+		expired.setCredentials(SplitToken.generate());
 		expired.setExpiryDate(Instant.now().minus(Duration.ofDays(1)));
 		expired.setUser(user);
 
 		// Valid token (tomorrow)
 		RefreshToken valid = new RefreshToken();
-		valid.setToken("valid123");
+		valid.setCredentials(SplitToken.generate());
 		valid.setExpiryDate(Instant.now().plus(Duration.ofDays(1)));
 		valid.setUser(user);
 
@@ -76,7 +78,7 @@ public class TokenCleanupJobIT {
 
 		List<RefreshToken> remaining = refreshTokenRepository.findAll();
 		assertEquals(1, remaining.size());
-		assertEquals("valid123", remaining.getFirst().getToken());
+		assertArrayEquals(valid.getSelector(), remaining.getFirst().getSelector());
 	}
 
 	@Test
@@ -85,12 +87,12 @@ public class TokenCleanupJobIT {
 		User user2 = userRepository.save(TestUserFactory.randomRegularUser());
 
 		VerificationToken expired = new VerificationToken();
-		expired.setToken("expired123");
+		expired.setCredentials(SplitToken.generate());
 		expired.setExpiryDate(Instant.now().minus(Duration.ofDays(1)));
 		expired.setUser(user1);
 
 		VerificationToken valid = new VerificationToken();
-		valid.setToken("valid123");
+		valid.setCredentials(SplitToken.generate());
 		valid.setExpiryDate(Instant.now().plus(Duration.ofDays(1)));
 		valid.setUser(user2);
 
@@ -101,7 +103,7 @@ public class TokenCleanupJobIT {
 
 		List<VerificationToken> remaining = verificationTokenRepository.findAll();
 		assertEquals(1, remaining.size());
-		assertEquals("valid123", remaining.getFirst().getToken());
+		assertArrayEquals(valid.getSelector(), remaining.getFirst().getSelector());
 	}
 
 	@Test
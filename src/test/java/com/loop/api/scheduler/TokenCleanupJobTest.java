@@ -0,0 +1,208 @@
+package com.loop.api.scheduler;
+
+import com.loop.api.modules.auth.repository.OutboxEmailRepository;
+import com.loop.api.modules.auth.repository.PasswordResetCodeRepository;
+import com.loop.api.modules.auth.repository.RefreshTokenPartitions;
+import com.loop.api.modules.auth.repository.RefreshTokenStore;
+import com.loop.api.modules.auth.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+public class TokenCleanupJobTest {
+
+	private static final int CHUNK_SIZE = 100;
+
+	@Mock
+	private RefreshTokenStore refreshTokenStore;
+	@Mock
+	private RefreshTokenPartitions refreshTokenPartitions;
+	@Mock
+	private VerificationTokenRepository verificationTokenRepository;
+	@Mock
+	private PasswordResetCodeRepository passwordResetCodeRepository;
+	@Mock
+	private OutboxEmailRepository outboxEmailRepository;
+	@Mock
+	private SchedulerLock schedulerLock;
+
+	private SimpleMeterRegistry registry;
+	private TokenCleanupJob job;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		job = new TokenCleanupJob(refreshTokenStore, refreshTokenPartitions, verificationTokenRepository, passwordResetCodeRepository,
+				outboxEmailRepository, schedulerLock, registry, CHUNK_SIZE, Duration.ZERO, Duration.ofDays(7));
+	}
+
+	@Test
+	@DisplayName("Should keep deleting chunks until a partial chunk is returned")
+	void shouldDeleteUntilPartialChunk() {
+		lockAcquired();
+		when(refreshTokenStore.deleteExpired(any(Instant.class), eq(CHUNK_SIZE)))
+				.thenReturn(CHUNK_SIZE, CHUNK_SIZE, 7);
+
+		job.cleanExpiredRefreshTokens();
+
+		verify(refreshTokenStore, times(3)).deleteExpired(any(Instant.class), eq(CHUNK_SIZE));
+		assertEquals(207.0, counter("token.cleanup.deleted", TokenCleanupJob.REFRESH_TOKENS));
+		assertEquals(3.0, counter("token.cleanup.chunks", TokenCleanupJob.REFRESH_TOKENS));
+		assertEquals(1, registry.get("token.cleanup.duration").tag("job", TokenCleanupJob.REFRESH_TOKENS)
+				.timer().count());
+	}
+
+	@Test
+	@DisplayName("Should renew the lease before every further chunk and stop once it is lost")
+	void shouldStopWhenLeaseLost() {
+		AtomicInteger renewals = new AtomicInteger();
+		lockAcquired(() -> renewals.incrementAndGet() < 2);
+		when(refreshTokenStore.deleteExpired(any(Instant.class), eq(CHUNK_SIZE))).thenReturn(CHUNK_SIZE);
+
+		job.cleanExpiredRefreshTokens();
+
+		verify(refreshTokenStore, times(2)).deleteExpired(any(Instant.class), eq(CHUNK_SIZE));
+		assertEquals(2, renewals.get());
+		assertEquals(200.0, counter("token.cleanup.deleted", TokenCleanupJob.REFRESH_TOKENS));
+	}
+
+	@Test
+	@DisplayName("Should only delete from the default partition when the table is partitioned")
+	void shouldLeavePartitionedRowsToPartitionDrops() {
+		lockAcquired();
+		when(refreshTokenPartitions.isPartitioned()).thenReturn(true);
+		when(refreshTokenPartitions.deleteExpiredFromDefault(any(Instant.class), eq(CHUNK_SIZE))).thenReturn(3);
+
+		job.cleanExpiredRefreshTokens();
+
+		verify(refreshTokenPartitions).deleteExpiredFromDefault(any(Instant.class), eq(CHUNK_SIZE));
+		verifyNoInteractions(refreshTokenStore);
+		assertEquals(3.0, counter("token.cleanup.deleted", TokenCleanupJob.REFRESH_TOKENS));
+	}
+
+	@Test
+	@DisplayName("Should use one cutoff for every chunk of a run")
+	void shouldUseFixedCutoff() {
+		lockAcquired();
+		when(verificationTokenRepository.deleteExpiredChunk(any(Instant.class), eq(CHUNK_SIZE)))
+				.thenReturn(CHUNK_SIZE, 0);
+
+		job.cleanExpiredVerificationTokens();
+
+		verify(verificationTokenRepository, times(2)).deleteExpiredChunk(argThat(new SameInstant()), eq(CHUNK_SIZE));
+	}
+
+	@Test
+	@DisplayName("Should record an empty run")
+	void shouldRecordEmptyRun() {
+		lockAcquired();
+		when(passwordResetCodeRepository.deleteExpiredChunk(any(Instant.class), eq(CHUNK_SIZE))).thenReturn(0);
+
+		job.cleanExpiredPasswordResetCodes();
+
+		assertEquals(0.0, counter("token.cleanup.deleted", TokenCleanupJob.PASSWORD_RESET_CODES));
+		assertEquals(1.0, counter("token.cleanup.chunks", TokenCleanupJob.PASSWORD_RESET_CODES));
+	}
+
+	@Test
+	@DisplayName("Should purge failed emails only once they are older than the retention")
+	void shouldPurgeFailedEmailsAfterRetention() {
+		lockAcquired();
+		when(outboxEmailRepository.deleteFailedChunk(any(Instant.class), eq(CHUNK_SIZE))).thenReturn(CHUNK_SIZE, 4);
+		Instant latestCutoff = Instant.now().minus(Duration.ofDays(7));
+
+		job.purgeFailedEmails();
+
+		verify(outboxEmailRepository, times(2)).deleteFailedChunk(
+				argThat(cutoff -> !cutoff.isAfter(Instant.now().minus(Duration.ofDays(7)))
+						&& !cutoff.isBefore(latestCutoff)), eq(CHUNK_SIZE));
+		assertEquals(104.0, counter("token.cleanup.deleted", TokenCleanupJob.FAILED_EMAILS));
+	}
+
+	@Test
+	@DisplayName("Should skip the run when another node holds the lock")
+	void shouldSkipWhenLockHeldElsewhere() {
+		when(schedulerLock.runExclusivelyWithLease(eq(TokenCleanupJob.REFRESH_TOKENS), any())).thenReturn(false);
+
+		job.cleanExpiredRefreshTokens();
+
+		verifyNoInteractions(refreshTokenStore);
+		assertTrue(registry.find("token.cleanup.deleted").counters().isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should create and drop refresh token partitions when the table is partitioned")
+	void shouldMaintainPartitions() {
+		lockAcquired();
+		when(refreshTokenPartitions.isPartitioned()).thenReturn(true);
+		when(refreshTokenPartitions.createAhead(any(LocalDate.class))).thenReturn(2);
+		when(refreshTokenPartitions.dropBefore(any(LocalDate.class))).thenReturn(1);
+
+		job.maintainRefreshTokenPartitions();
+
+		assertEquals(2.0, counter("token.cleanup.partitions.created", TokenCleanupJob.REFRESH_TOKEN_PARTITIONS));
+		assertEquals(1.0, counter("token.cleanup.partitions.dropped", TokenCleanupJob.REFRESH_TOKEN_PARTITIONS));
+	}
+
+	@Test
+	@DisplayName("Should skip partition maintenance when the table is not partitioned")
+	void shouldSkipPartitionMaintenanceWhenNotPartitioned() {
+		when(refreshTokenPartitions.isPartitioned()).thenReturn(false);
+
+		job.maintainRefreshTokenPartitions();
+
+		verify(refreshTokenPartitions, never()).createAhead(any());
+		verifyNoInteractions(schedulerLock);
+	}
+
+	private void lockAcquired() {
+		lockAcquired(() -> true);
+	}
+
+	private void lockAcquired(SchedulerLock.Lease lease) {
+		lenient().when(schedulerLock.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+			invocation.<Runnable>getArgument(1).run();
+			return true;
+		});
+		lenient().when(schedulerLock.runExclusivelyWithLease(anyString(), any())).thenAnswer(invocation -> {
+			invocation.<Consumer<SchedulerLock.Lease>>getArgument(1).accept(lease);
+			return true;
+		});
+	}
+
+	private double counter(String name, String job) {
+		return registry.get(name).tag("job", job).counter().count();
+	}
+
+	private static class SameInstant implements org.mockito.ArgumentMatcher<Instant> {
+		private Instant first;
+
+		@Override
+		public boolean matches(Instant instant) {
+			if (first == null) {
+				first = instant;
+			}
+			return first.equals(instant);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.loop.api.security;
+
+import com.loop.api.common.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class BoundedPasswordEncoderTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		release.countDown();
+		if (encoder != null) {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("Should encode and match through the hashing pool")
+	void shouldRoundTrip() {
+		encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), registry);
+
+		String hash = encoder.encode("secret123");
+
+		assertTrue(encoder.matches("secret123", hash));
+		assertFalse(encoder.matches("wrong", hash));
+		assertEquals(1, registry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+		assertEquals(2, registry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+	}
+
+	@Test
+	@DisplayName("Should reject with ServiceBusyException when the queue is full")
+	void shouldRejectWhenSaturated() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		encoder = new BoundedPasswordEncoder(blockingEncoder(started), 1, 1, Duration.ofSeconds(5), registry);
+
+		CompletableFuture.runAsync(() -> encoder.encode("running"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture.runAsync(() -> encoder.encode("queued"));
+		waitForQueueDepth(1);
+
+		ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> encoder.encode("rejected"));
+
+		assertEquals(Duration.ofSeconds(5), ex.getRetryAfter());
+		assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+	}
+
+	@Test
+	@DisplayName("Should give up with ServiceBusyException when hashing exceeds the timeout")
+	void shouldTimeOut() {
+		encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50),
+				registry);
+
+		assertThrows(ServiceBusyException.class, () -> encoder.matches("secret", "hash"));
+		assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+	}
+
+	@Test
+	@DisplayName("Should pick a higher bcrypt strength for each doubling of headroom")
+	void shouldCalibrateStrength() {
+		assertEquals(10, BcryptStrengthCalibrator.strengthFor(100_000_000L, 50_000_000L));
+		assertEquals(10, BcryptStrengthCalibrator.strengthFor(50_000_000L, 99_000_000L));
+		assertEquals(12, BcryptStrengthCalibrator.strengthFor(50_000_000L, 200_000_000L));
+		assertEquals(BcryptStrengthCalibrator.MAX_STRENGTH, BcryptStrengthCalibrator.strengthFor(1L, 1_000_000_000L));
+	}
+
+	private PasswordEncoder blockingEncoder(CountDownLatch started) {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				awaitRelease();
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				started.countDown();
+				awaitRelease();
+				return false;
+			}
+		};
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void waitForQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (registry.get("executor.queued").gauge().value() < depth && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+}
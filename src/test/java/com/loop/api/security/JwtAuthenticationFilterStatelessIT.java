@@ -0,0 +1,82 @@
+package com.loop.api.security;
+
+import com.loop.api.common.constants.ApiRoutes;
+import com.loop.api.modules.user.model.User;
+import com.loop.api.modules.user.repository.UserRepository;
+import com.loop.api.testutils.TestUserFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("IntegrationTest")
+@SpringBootTest(properties = {
+		"app.security.stateless-principal=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JwtAuthenticationFilterStatelessIT {
+
+	private static final int REQUESTS = 200;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtTokenProvider jwtTokenProvider;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private String jwt;
+
+	@BeforeAll
+	void setUp() {
+		User user = userRepository.save(TestUserFactory.randomRegularUser());
+		jwt = jwtTokenProvider.generateToken(new UserPrincipal(user));
+	}
+
+	@Test
+	@DisplayName("Should authenticate repeated requests without issuing any database query")
+	void shouldNotQueryDatabaseWhenAuthenticating() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// The admin endpoint is rejected by method security before the controller runs, so any statement
+		// counted here could only have come from the authentication filter.
+		for (int i = 0; i < REQUESTS; i++) {
+			mockMvc.perform(get(ApiRoutes.Admin.USERS)
+							.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt))
+					.andExpect(status().isForbidden());
+		}
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Should expose claims-based principal to controllers")
+	void shouldAuthenticateFromClaims() throws Exception {
+		User ghost = TestUserFactory.regularUser(9999L);
+		String ghostJwt = jwtTokenProvider.generateToken(new UserPrincipal(ghost));
+
+		// Stateless mode trusts the signed claims, so an unknown user reaches the controller and gets a 404 there
+		mockMvc.perform(get(ApiRoutes.User.ME)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + ghostJwt))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.code").value(404));
+	}
+}
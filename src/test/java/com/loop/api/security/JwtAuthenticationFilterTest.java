@@ -0,0 +1,53 @@
+package com.loop.api.security;
+
+import com.loop.api.common.constants.ApiRoutes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@Tag("UnitTest")
+public class JwtAuthenticationFilterTest {
+
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new JwtAuthenticationFilter(mock(JwtTokenProvider.class), mock(UserPrincipalService.class),
+				mock(AuthenticationEntryPoint.class), false);
+	}
+
+	private MockHttpServletRequest request(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", ApiRoutes.CONTEXT_PATH + path);
+		request.setContextPath(ApiRoutes.CONTEXT_PATH);
+		return request;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {ApiRoutes.Auth.LOGIN, ApiRoutes.Auth.LOGOUT, "/public/terms", "/images/logo.png"})
+	@DisplayName("Should skip token processing for excluded paths")
+	void shouldSkipExcludedPaths(String path) {
+		assertTrue(filter.shouldNotFilter(request(path)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {ApiRoutes.User.ME, ApiRoutes.Admin.USERS, "/authority"})
+	@DisplayName("Should process token for protected paths")
+	void shouldFilterProtectedPaths(String path) {
+		assertFalse(filter.shouldNotFilter(request(path)));
+	}
+
+	@Test
+	@DisplayName("Should match excluded paths when no context path is set")
+	void shouldMatchWithoutContextPath() {
+		assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", ApiRoutes.Auth.REFRESH)));
+	}
+}
@@ -9,6 +9,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("UnitTest")
@@ -20,7 +26,7 @@ public class JwtTokenProviderTest {
 
 	@BeforeEach
 	void setUp() {
-		jwtTokenProvider = new JwtTokenProvider(secret, expirationTime);
+		jwtTokenProvider = new JwtTokenProvider(secret, expirationTime, new VerifiedTokenCache(100));
 	}
 
 	@Test
@@ -48,6 +54,42 @@ public class JwtTokenProviderTest {
 		assertEquals("1", userId);
 	}
 
+	@Test
+	void shouldRebuildPrincipalFromClaims() {
+		User user = TestUserFactory.adminUser(7L);
+		String token = jwtTokenProvider.generateToken(new UserPrincipal(user));
+
+		UserPrincipal principal = jwtTokenProvider.getUserPrincipalFromClaims(jwtTokenProvider.parseToken(token));
+
+		assertEquals(7L, principal.getId());
+		assertEquals(user.getEmail(), principal.getEmail());
+		assertEquals(user.getUsername(), principal.getUsername());
+		assertEquals(user.getProfileUrl(), principal.getProfileUrl());
+		assertTrue(principal.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+		assertNull(principal.getPassword());
+	}
+
+	@Test
+	void shouldSignAndVerifyConcurrentlyWithSharedParser() throws Exception {
+		int threads = 32;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (long i = 1; i <= threads * 10; i++) {
+				long userId = i;
+				results.add(executor.submit(() -> {
+					String token = jwtTokenProvider.generateToken(new UserPrincipal(TestUserFactory.regularUser(userId)));
+					return String.valueOf(userId).equals(jwtTokenProvider.getUserIdFromClaims(jwtTokenProvider.parseToken(token)));
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	void shouldThrowExceptionForInvalidToken() {
 		assertThrows(JwtException.class, () -> {
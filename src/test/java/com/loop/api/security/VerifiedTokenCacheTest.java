@@ -0,0 +1,90 @@
+package com.loop.api.security;
+
+import com.loop.api.testutils.TestUserFactory;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UnitTest")
+public class VerifiedTokenCacheTest {
+
+	private static final String SECRET = "my-secret-key-123456789012345678901234";
+
+	private String tokenExpiringIn(long expirationMs) {
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, expirationMs, new VerifiedTokenCache(0));
+		return provider.generateToken(new UserPrincipal(TestUserFactory.regularUser(1L)));
+	}
+
+	@Test
+	@DisplayName("Should verify a repeated token only once")
+	void shouldSkipVerificationOnRepeat() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600000L, cache);
+		String token = tokenExpiringIn(3600000L);
+
+		Jws<Claims> first = provider.parseToken(token);
+		Jws<Claims> second = provider.parseToken(token);
+
+		assertSame(first, second);
+		assertEquals(1, cache.getNativeCache().stats().missCount());
+		assertEquals(1, cache.getNativeCache().stats().hitCount());
+	}
+
+	@Test
+	@DisplayName("Should not cache tokens that fail verification")
+	void shouldNotCacheFailures() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		AtomicInteger verifications = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			assertThrows(JwtException.class, () -> cache.get("bad.token.value", token -> {
+				verifications.incrementAndGet();
+				throw new JwtException("bad signature");
+			}));
+		}
+
+		assertEquals(2, verifications.get());
+		assertEquals(0, cache.getNativeCache().estimatedSize());
+	}
+
+	@Test
+	@DisplayName("Should drop an entry once the token's exp has passed")
+	void shouldExpireWithToken() throws InterruptedException {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600000L, cache);
+		String token = tokenExpiringIn(1500L);
+
+		provider.parseToken(token);
+		Thread.sleep(1600L);
+
+		assertThrows(ExpiredJwtException.class, () -> provider.parseToken(token));
+	}
+
+	@Test
+	@DisplayName("Should publish hit and miss meters")
+	void shouldPublishMetrics() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600000L, cache);
+		String token = tokenExpiringIn(3600000L);
+
+		provider.parseToken(token);
+		provider.parseToken(token);
+		provider.parseToken(token);
+
+		assertEquals(2.0, registry.get("cache.gets").tag("cache", "jwtVerifications").tag("result", "hit")
+				.functionCounter().count());
+		assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwtVerifications").tag("result", "miss")
+				.functionCounter().count());
+	}
+}
@@ -0,0 +1,46 @@
+package db.migration;
+
+import com.loop.api.common.util.SplitToken;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("IntegrationTest")
+public class TokenBackfillMigrationIT {
+
+	@Test
+	@DisplayName("Should keep tokens issued before the selector/validator format usable after migrating")
+	void shouldBackfillLegacyTokens() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:backfill-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+		Flyway.configure().dataSource(dataSource).target("6").load().migrate();
+
+		String refreshToken = UUID.randomUUID().toString();
+		String verificationToken = UUID.randomUUID().toString();
+		jdbc.update("INSERT INTO users (id, email, password, username) VALUES (1, 'legacy@example.com', 'x', 'legacy')");
+		jdbc.update("INSERT INTO refresh_tokens (token, expiry_date, user_id) VALUES (?, CURRENT_TIMESTAMP, 1)",
+				refreshToken);
+		jdbc.update("INSERT INTO verification_tokens (token, expiry_date, user_id) VALUES (?, CURRENT_TIMESTAMP, 1)",
+				verificationToken);
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		assertEquals(1, countMatching(jdbc, "refresh_tokens", refreshToken));
+		assertEquals(1, countMatching(jdbc, "verification_tokens", verificationToken));
+	}
+
+	private int countMatching(JdbcTemplate jdbc, String table, String legacyToken) {
+		SplitToken parsed = SplitToken.parse(legacyToken).orElseThrow();
+		return jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE selector = ? AND validator_hash = ?",
+				Integer.class, parsed.getSelector(), parsed.getValidatorHash());
+	}
+}